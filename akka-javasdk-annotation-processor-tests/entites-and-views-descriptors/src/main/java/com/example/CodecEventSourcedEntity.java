@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package com.example;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.eventsourcedentity.EventSourcedEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@ComponentId("codec-event-sourced")
+public class CodecEventSourcedEntity extends EventSourcedEntity<CodecEventSourcedEntity.State, CodecEventSourcedEntity.Event> {
+
+  record Address(String street, int number) {}
+
+  record State(
+      String name,
+      Address address,
+      Optional<String> nickname,
+      List<Address> previousAddresses,
+      Map<String, Integer> counts,
+      long version) {}
+
+  record Event(String name, Address address) {}
+
+
+  @Override
+  public State applyEvent(Event event) {
+    return new State(event.name(), event.address(), Optional.empty(), List.of(), Map.of(), 0L);
+  }
+}
@@ -4,12 +4,46 @@
 
 package com.example
 
+import java.util.Optional
+import java.util.{ List => JList }
+import java.util.{ Map => JMap }
+
+import scala.jdk.CollectionConverters._
+
+import akka.javasdk.impl.serialization.JsonSerializer
+import akka.javasdk.impl.serialization.RecordCodec
+import akka.runtime.sdk.spi.BytesPayload
+import akka.util.ByteString
+import com.fasterxml.jackson.core.JsonGenerator
+import com.fasterxml.jackson.core.JsonParser
+import com.fasterxml.jackson.databind.DeserializationContext
+import com.fasterxml.jackson.databind.SerializerProvider
 import com.typesafe.config.ConfigFactory
 import org.scalatest.matchers.should.Matchers
 import org.scalatest.wordspec.AnyWordSpec
 
+// written against an earlier version of the record, where the component was named streetName
+class OutdatedAddressCodec
+    extends RecordCodec[CodecEventSourcedEntity.Address](
+      classOf[CodecEventSourcedEntity.Address],
+      Array("streetName", "number"),
+      Array(classOf[String], classOf[Int])) {
+  override def writeFields(
+      value: CodecEventSourcedEntity.Address,
+      gen: JsonGenerator,
+      provider: SerializerProvider): Unit = ???
+  override def readFields(p: JsonParser, ctxt: DeserializationContext): CodecEventSourcedEntity.Address = ???
+}
+
 class EntitiesAndViewsDescriptorSpec extends AnyWordSpec with Matchers {
 
+  private lazy val codecClasses = {
+    val config = ConfigFactory.load("META-INF/akka-javasdk-components.conf")
+    RecordCodec.loadCodecClasses(config.getStringList("akka.javasdk.json-codecs").asScala.toSeq, getClass.getClassLoader)
+  }
+  private lazy val withCodecs = JsonSerializer.internalWithGeneratedCodecs(codecClasses, binaryEncoding = false)
+  private val jackson = new JsonSerializer()
+
   "akka-javasdk-components.conf" should {
     "have correct configuration" in {
       val config = ConfigFactory.load("META-INF/akka-javasdk-components.conf")
@@ -20,8 +54,9 @@ class EntitiesAndViewsDescriptorSpec extends AnyWordSpec with Matchers {
       keyValueComponents should contain("com.example.HierarchyKvEntity")
 
       val eventSourcedComponents = config.getStringList("akka.javasdk.components.event-sourced-entity")
-      eventSourcedComponents.size() shouldBe 2
+      eventSourcedComponents.size() shouldBe 3
       eventSourcedComponents should contain("com.example.SimpleEventSourcedEntity")
+      eventSourcedComponents should contain("com.example.CodecEventSourcedEntity")
       eventSourcedComponents should contain("com.example.HierarchyEsEntity")
 
       val viewComponents = config.getStringList("akka.javasdk.components.view")
@@ -33,5 +68,84 @@ class EntitiesAndViewsDescriptorSpec extends AnyWordSpec with Matchers {
       val kalixService = config.getString("akka.javasdk.service-setup")
       kalixService should be("com.example.Setup")
     }
+
+    "list the generated JSON codecs for state and event types" in {
+      val config = ConfigFactory.load("META-INF/akka-javasdk-components.conf")
+
+      val jsonCodecs = config.getStringList("akka.javasdk.json-codecs")
+      jsonCodecs should contain theSameElementsAs Seq(
+        "com.example.SimpleEventSourcedEntity_State_JsonCodec",
+        "com.example.SimpleEventSourcedEntity_Event_JsonCodec",
+        "com.example.SimpleKeyValueEntity_State_JsonCodec",
+        // type parameters resolved through the abstract supertypes
+        "com.example.AbstractInbetweenEsEntity_State_JsonCodec",
+        "com.example.AbstractInbetweenEsEntity_Event_JsonCodec",
+        "com.example.CodecEventSourcedEntity_State_JsonCodec",
+        "com.example.CodecEventSourcedEntity_Event_JsonCodec",
+        // records nested in state or events get a codec as well
+        "com.example.CodecEventSourcedEntity_Address_JsonCodec")
+    }
+
+    "generate JSON codecs producing the same JSON as Jackson" in {
+      codecClasses should have size 8
+
+      val state = new AbstractInbetweenEsEntity.State("some value")
+
+      val encoded = withCodecs.toBytes(state)
+      encoded.contentType shouldBe jackson.toBytes(state).contentType
+      encoded.bytes.utf8String shouldBe jackson.toBytes(state).bytes.utf8String
+      jackson.fromBytes(classOf[AbstractInbetweenEsEntity.State], encoded) shouldBe state
+      withCodecs.fromBytes(classOf[AbstractInbetweenEsEntity.State], encoded) shouldBe state
+    }
+
+    "generate JSON codecs for nested records, Optional and collection fields" in {
+      val state = new CodecEventSourcedEntity.State(
+        "name",
+        new CodecEventSourcedEntity.Address("street", 1),
+        Optional.of("nick"),
+        JList.of(new CodecEventSourcedEntity.Address("old street", 2), new CodecEventSourcedEntity.Address("older", 3)),
+        JMap.of("a", 1),
+        7L)
+
+      val encoded = withCodecs.toBytes(state)
+      encoded.bytes.utf8String shouldBe jackson.toBytes(state).bytes.utf8String
+      withCodecs.fromBytes(classOf[CodecEventSourcedEntity.State], encoded) shouldBe state
+
+      val event = new CodecEventSourcedEntity.Event("name", new CodecEventSourcedEntity.Address("street", 1))
+      withCodecs.toBytes(event).bytes.utf8String shouldBe jackson.toBytes(event).bytes.utf8String
+      withCodecs.fromBytes(classOf[CodecEventSourcedEntity.Event], withCodecs.toBytes(event)) shouldBe event
+    }
+
+    "generate JSON codecs handling nulls like Jackson" in {
+      val state = new CodecEventSourcedEntity.State(null, null, null, null, null, 0L)
+
+      val encoded = withCodecs.toBytes(state)
+      encoded.bytes.utf8String shouldBe jackson.toBytes(state).bytes.utf8String
+      // a null Optional is read back as empty, by both
+      val decoded = withCodecs.fromBytes(classOf[CodecEventSourcedEntity.State], encoded)
+      decoded shouldBe jackson.fromBytes(classOf[CodecEventSourcedEntity.State], encoded)
+      decoded.nickname() shouldBe Optional.empty()
+    }
+
+    "generate JSON codecs skipping unknown fields and defaulting missing fields like Jackson" in {
+      val json =
+        """{"unknown":{"nested":[1,{"deeper":true}]},"name":"name","address":{"street":"street","extra":1,"number":1},"other":null}"""
+      val payload = jackson.toBytes(new CodecEventSourcedEntity.State("name", null, null, null, null, 0L))
+      val withUnknownFields = new BytesPayload(ByteString(json), payload.contentType)
+
+      val decoded = withCodecs.fromBytes(classOf[CodecEventSourcedEntity.State], withUnknownFields)
+      decoded shouldBe jackson.fromBytes(classOf[CodecEventSourcedEntity.State], withUnknownFields)
+      decoded.address() shouldBe new CodecEventSourcedEntity.Address("street", 1)
+      decoded.version() shouldBe 0L
+    }
+
+    "skip codecs that no longer match their record" in {
+      RecordCodec.loadCodecClasses(
+        Seq(
+          classOf[OutdatedAddressCodec].getName,
+          "com.example.DoesNotExist_JsonCodec",
+          "com.example.CodecEventSourcedEntity_Address_JsonCodec"),
+        getClass.getClassLoader) shouldBe Seq(classOf[CodecEventSourcedEntity_Address_JsonCodec])
+    }
   }
 }
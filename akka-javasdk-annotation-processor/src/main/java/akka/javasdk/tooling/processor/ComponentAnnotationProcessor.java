@@ -62,6 +62,8 @@ public class ComponentAnnotationProcessor extends AbstractProcessor {
     private static final String VIEW_KEY = "view";
     private static final String WORKFLOW_KEY = "workflow";
     private static final String SERVICE_SETUP_KEY = "service-setup";
+    // list of the record codecs generated for the state, event and command types of the components
+    private static final String JSON_CODECS_KEY = "json-codecs";
 
     private static final List<String> ALL_COMPONENT_TYPES = List.of(HTTP_ENDPOINT_KEY, GRPC_ENDPOINT_KEY,
         EVENT_SOURCED_ENTITY_KEY, VALUE_ENTITY_KEY, TIMED_ACTION_KEY, CONSUMER_KEY, VIEW_KEY, WORKFLOW_KEY,
@@ -84,6 +86,7 @@ public class ComponentAnnotationProcessor extends AbstractProcessor {
             alreadyRan = true;
 
             Map<String, List<String>> componentTypeToConcreteComponents = new HashMap<>();
+            var codecGenerator = new RecordCodecGenerator(processingEnv, roundEnv.getRootElements(), this::debug);
             for (TypeElement annotation : annotations) {
                 Set<? extends Element> annotatedElements = roundEnv.getElementsAnnotatedWith(annotation);
                 var elementsPerComponentType = ElementFilter.typesIn(annotatedElements)
@@ -97,6 +100,7 @@ public class ComponentAnnotationProcessor extends AbstractProcessor {
                     }
                     debug("Found "  + classNames.size() + " components of type " + componentType + " annotated with " + annotation + ": " + String.join(", ", classNames));
                     componentTypeToConcreteComponents.put(componentType, classNames);
+                    elements.forEach(element -> addCodecTypes(codecGenerator, componentType, element));
                 });
             }
 
@@ -111,7 +115,8 @@ public class ComponentAnnotationProcessor extends AbstractProcessor {
                         mapEntry.getValue().size() + " " + mapEntry.getKey()
                     ).toList());
                     info("Akka SDK annotation processor detected components: " + summary);
-                    createComponentServiceDescriptor(componentTypeToConcreteComponents);
+                    var codecs = codecGenerator.generate();
+                    createComponentServiceDescriptor(componentTypeToConcreteComponents, codecs);
                 } else {
                     debug("Akka SDK annotation processor found no annotated components");
                 }
@@ -167,7 +172,19 @@ public class ComponentAnnotationProcessor extends AbstractProcessor {
         };
     }
 
-    private void createComponentServiceDescriptor(Map<String, List<String>> componentTypeToConcreteComponents) throws IOException {
+    private void addCodecTypes(RecordCodecGenerator codecGenerator, String componentType, TypeElement component) {
+        switch (componentType) {
+            case EVENT_SOURCED_ENTITY_KEY -> codecGenerator.addComponent(component, "akka.javasdk.eventsourcedentity.EventSourcedEntity");
+            case VALUE_ENTITY_KEY -> codecGenerator.addComponent(component, "akka.javasdk.keyvalueentity.KeyValueEntity");
+            case WORKFLOW_KEY -> codecGenerator.addComponent(component, "akka.javasdk.workflow.Workflow");
+            case TIMED_ACTION_KEY -> codecGenerator.addComponent(component, null);
+            default -> {
+                // endpoints, consumers and views don't define their own types
+            }
+        }
+    }
+
+    private void createComponentServiceDescriptor(Map<String, List<String>> componentTypeToConcreteComponents, RecordCodecGenerator.Result codecs) throws IOException {
         var filer = processingEnv.getFiler();
 
         Config existingConfig;
@@ -218,6 +235,20 @@ public class ComponentAnnotationProcessor extends AbstractProcessor {
             }
         });
 
+        // keep codecs of records not compiled this time, unless they were examined again
+        Set<String> jsonCodecs = new HashSet<>();
+        var jsonCodecsConfigPath = DESCRIPTOR_ENTRY_BASE_PATH + JSON_CODECS_KEY;
+        if (foundExistingConfig.hasPath(jsonCodecsConfigPath)) {
+            foundExistingConfig.getStringList(jsonCodecsConfigPath).stream()
+                .filter(codec -> !codecs.examined().contains(codec))
+                .forEach(jsonCodecs::add);
+        }
+        jsonCodecs.addAll(codecs.generated());
+        if (!jsonCodecs.isEmpty()) {
+            debug("Adding " + jsonCodecs.size() + " JSON codecs to descriptor");
+            config.put(jsonCodecsConfigPath, jsonCodecs.stream().sorted().toList());
+        }
+
         var newDescriptorResource = filer.createResource(StandardLocation.CLASS_OUTPUT, "", COMPONENT_DESCRIPTOR_FILE_PATH);
         debug("Akka SDK annotation processor writing component descriptor " + new File(newDescriptorResource.toUri()));
         writeConfig(newDescriptorResource, ConfigFactory.parseMap(config));
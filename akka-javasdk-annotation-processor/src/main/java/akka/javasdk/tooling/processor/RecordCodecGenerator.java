@@ -0,0 +1,377 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.tooling.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Generates a streaming JSON codec for the records used as state, events and commands of the components.
+ * <p>
+ * A codec extends {@code akka.javasdk.impl.serialization.RecordCodec} and is only generated for records where it
+ * produces the same JSON as Jackson: no Jackson annotations on the record, its components or supertypes, and no getters
+ * besides the component accessors. Values that are not primitives or strings are still written and read by Jackson.
+ * The runtime validates each codec against the record again before using it.
+ */
+final class RecordCodecGenerator {
+
+  static final String CODEC_SUFFIX = "_JsonCodec";
+
+  private static final String CODEC_BASE_CLASS = "akka.javasdk.impl.serialization.RecordCodec";
+  private static final int MAX_COMPONENTS = 64;
+
+  record Result(List<String> generated, Set<String> examined) {}
+
+  private final ProcessingEnvironment processingEnv;
+  private final Types types;
+  private final Elements elements;
+  private final Set<? extends Element> rootElements;
+  private final Consumer<Object> debug;
+
+  private final Set<String> visited = new HashSet<>();
+  private final Set<TypeElement> records = new LinkedHashSet<>();
+
+  RecordCodecGenerator(ProcessingEnvironment processingEnv, Set<? extends Element> rootElements, Consumer<Object> debug) {
+    this.processingEnv = processingEnv;
+    this.types = processingEnv.getTypeUtils();
+    this.elements = processingEnv.getElementUtils();
+    this.rootElements = rootElements;
+    this.debug = debug;
+  }
+
+  /**
+   * Collect the state, event and command types of a component, including the permitted subtypes of sealed types and
+   * the records used in their components.
+   */
+  void addComponent(TypeElement component, String componentBaseClass) {
+    if (componentBaseClass != null) {
+      var baseType = findSupertype(component.asType(), componentBaseClass);
+      if (baseType != null) baseType.getTypeArguments().forEach(this::collect);
+    }
+    var componentType = (DeclaredType) component.asType();
+    for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(component))) {
+      if (isCommandHandler(method)) {
+        var methodType = (ExecutableType) types.asMemberOf(componentType, method);
+        collect(methodType.getParameterTypes().getFirst());
+      }
+    }
+  }
+
+  Result generate() {
+    List<String> generated = new ArrayList<>();
+    Set<String> examined = new HashSet<>();
+    for (TypeElement record : records) {
+      // codecs for records from dependencies or from files not recompiled are left as they are
+      if (!isFromSource(record)) continue;
+      var codecName = codecName(record);
+      examined.add(codecName);
+      var reason = notSupportedReason(record);
+      if (reason != null) {
+        debug.accept("Not generating JSON codec for " + record.getQualifiedName() + ": " + reason);
+      } else {
+        try {
+          writeCodec(record, codecName);
+          debug.accept("Generated JSON codec " + codecName);
+          generated.add(codecName);
+        } catch (IOException ex) {
+          processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Could not generate JSON codec for " + record.getQualifiedName() + ": " + ex.getMessage(), record);
+        }
+      }
+    }
+    return new Result(generated, examined);
+  }
+
+  private DeclaredType findSupertype(TypeMirror type, String className) {
+    var toVisit = new ArrayDeque<TypeMirror>();
+    toVisit.add(type);
+    while (!toVisit.isEmpty()) {
+      var current = toVisit.poll();
+      if (current instanceof DeclaredType declaredType
+          && ((TypeElement) declaredType.asElement()).getQualifiedName().contentEquals(className)) {
+        return declaredType;
+      }
+      // the direct supertypes have the type arguments substituted
+      toVisit.addAll(types.directSupertypes(current));
+    }
+    return null;
+  }
+
+  private boolean isCommandHandler(ExecutableElement method) {
+    if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)
+        || method.getParameters().size() != 1
+        || !(method.getReturnType() instanceof DeclaredType returnType)) {
+      return false;
+    }
+    var returnElement = (TypeElement) returnType.asElement();
+    return returnElement.getQualifiedName().toString().startsWith("akka.javasdk.")
+        && returnElement.getSimpleName().toString().endsWith("Effect");
+  }
+
+  private void collect(TypeMirror type) {
+    if (type instanceof ArrayType arrayType) {
+      collect(arrayType.getComponentType());
+    } else if (type instanceof DeclaredType declaredType) {
+      declaredType.getTypeArguments().forEach(this::collect);
+      var element = (TypeElement) declaredType.asElement();
+      if (!visited.add(element.getQualifiedName().toString())) return;
+
+      if (element.getKind() == ElementKind.RECORD) {
+        records.add(element);
+        element.getRecordComponents().forEach(component -> collect(component.asType()));
+      }
+      if (element.getModifiers().contains(Modifier.SEALED)) {
+        element.getPermittedSubclasses().forEach(this::collect);
+      }
+    }
+  }
+
+  private boolean isFromSource(TypeElement type) {
+    Element topLevel = type;
+    while (!(topLevel.getEnclosingElement() instanceof PackageElement)) {
+      topLevel = topLevel.getEnclosingElement();
+      if (topLevel == null) return false;
+    }
+    return rootElements.contains(topLevel);
+  }
+
+  private String notSupportedReason(TypeElement record) {
+    if (!record.getTypeParameters().isEmpty()) return "generic records are not supported";
+
+    for (Element current = record; current instanceof TypeElement typeElement; current = current.getEnclosingElement()) {
+      if (typeElement.getNestingKind() != NestingKind.TOP_LEVEL && typeElement.getNestingKind() != NestingKind.MEMBER)
+        return "local records are not supported";
+      if (typeElement.getModifiers().contains(Modifier.PRIVATE)) return "not accessible from its package";
+    }
+
+    if (hasJacksonAnnotations(record)) return "has Jackson annotations";
+    for (TypeMirror supertype : allSupertypes(record.asType())) {
+      if (hasJacksonAnnotations(types.asElement(supertype))) return "has Jackson annotations on " + supertype;
+    }
+
+    var components = record.getRecordComponents();
+    if (components.size() > MAX_COMPONENTS) return "more than " + MAX_COMPONENTS + " components";
+    Set<String> accessorNames = new HashSet<>();
+    for (RecordComponentElement component : components) {
+      accessorNames.add(component.getSimpleName().toString());
+      if (hasJacksonAnnotations(component) || hasJacksonAnnotations(component.getAccessor()))
+        return "has Jackson annotations on " + component.getSimpleName();
+      var kind = component.asType().getKind();
+      if (kind == TypeKind.BYTE || kind == TypeKind.SHORT || kind == TypeKind.CHAR)
+        return "component type " + kind + " is not supported";
+    }
+    for (var field : ElementFilter.fieldsIn(record.getEnclosedElements())) {
+      if (hasJacksonAnnotations(field)) return "has Jackson annotations on " + field.getSimpleName();
+    }
+
+    // Jackson would also serialize other getters
+    for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(record))) {
+      if (isGetter(method) && !accessorNames.contains(method.getSimpleName().toString()))
+        return "has getter " + method.getSimpleName() + " that is not a record component";
+    }
+    return null;
+  }
+
+  private Set<TypeMirror> allSupertypes(TypeMirror type) {
+    Set<TypeMirror> result = new LinkedHashSet<>();
+    var toVisit = new ArrayDeque<TypeMirror>(types.directSupertypes(type));
+    while (!toVisit.isEmpty()) {
+      var current = toVisit.poll();
+      var name = ((TypeElement) types.asElement(current)).getQualifiedName().toString();
+      if (!name.equals("java.lang.Object") && !name.equals("java.lang.Record") && result.add(current)) {
+        toVisit.addAll(types.directSupertypes(current));
+      }
+    }
+    return result;
+  }
+
+  private static boolean isGetter(ExecutableElement method) {
+    var name = method.getSimpleName().toString();
+    if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)
+        || !method.getParameters().isEmpty() || name.equals("getClass")) {
+      return false;
+    }
+    return (name.length() > 3 && name.startsWith("get") && method.getReturnType().getKind() != TypeKind.VOID)
+        || (name.length() > 2 && name.startsWith("is") && method.getReturnType().getKind() == TypeKind.BOOLEAN);
+  }
+
+  private static boolean hasJacksonAnnotations(Element element) {
+    for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      var annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+      var name = annotationType.getQualifiedName().toString();
+      if (name.startsWith("com.fasterxml.jackson.") || name.startsWith("java.beans.")) return true;
+      for (AnnotationMirror meta : annotationType.getAnnotationMirrors()) {
+        var metaName = ((TypeElement) meta.getAnnotationType().asElement()).getQualifiedName().toString();
+        if (metaName.equals("com.fasterxml.jackson.annotation.JacksonAnnotation")
+            || metaName.equals("com.fasterxml.jackson.annotation.JacksonAnnotationsInside")) return true;
+      }
+    }
+    return false;
+  }
+
+  private String codecName(TypeElement record) {
+    var packageName = elements.getPackageOf(record).getQualifiedName().toString();
+    var nestedName = packageName.isEmpty()
+        ? record.getQualifiedName().toString()
+        : record.getQualifiedName().toString().substring(packageName.length() + 1);
+    var simpleName = nestedName.replace('.', '_') + CODEC_SUFFIX;
+    return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+  }
+
+  private void writeCodec(TypeElement record, String codecName) throws IOException {
+    var packageName = elements.getPackageOf(record).getQualifiedName().toString();
+    var simpleName = codecName.substring(codecName.lastIndexOf('.') + 1);
+    var recordName = record.getQualifiedName().toString();
+    var components = record.getRecordComponents();
+
+    var out = new StringBuilder();
+    if (!packageName.isEmpty()) out.append("package ").append(packageName).append(";\n\n");
+    out.append("@javax.annotation.processing.Generated(\"").append(ComponentAnnotationProcessor.class.getName()).append("\")\n");
+    out.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+    out.append("public final class ").append(simpleName).append(" extends ").append(CODEC_BASE_CLASS).append("<").append(recordName).append("> {\n\n");
+
+    // constructor, the names and types are used to validate the codec against the record at runtime
+    out.append("  public ").append(simpleName).append("() {\n");
+    out.append("    super(").append(recordName).append(".class,\n");
+    out.append("      new java.lang.String[] {");
+    appendEach(out, components, c -> "\"" + c.getSimpleName() + "\"");
+    out.append("},\n");
+    out.append("      new java.lang.Class<?>[] {");
+    appendEach(out, components, c -> erasedName(c.asType()) + ".class");
+    out.append("});\n");
+    out.append("  }\n\n");
+
+    out.append("  @Override\n");
+    out.append("  public void writeFields(").append(recordName).append(" value, com.fasterxml.jackson.core.JsonGenerator gen, com.fasterxml.jackson.databind.SerializerProvider provider) throws java.io.IOException {\n");
+    for (int i = 0; i < components.size(); i++) {
+      var component = components.get(i);
+      var name = component.getSimpleName().toString();
+      var accessor = "value." + name + "()";
+      switch (kindOf(component.asType())) {
+        case "String" -> out.append("    gen.writeStringField(\"").append(name).append("\", ").append(accessor).append(");\n");
+        case "Int", "Long", "Double", "Float" -> out.append("    gen.writeNumberField(\"").append(name).append("\", ").append(accessor).append(");\n");
+        case "Boolean" -> out.append("    gen.writeBooleanField(\"").append(name).append("\", ").append(accessor).append(");\n");
+        default -> {
+          out.append("    gen.writeFieldName(\"").append(name).append("\");\n");
+          out.append("    writeValue(gen, provider, ").append(i).append(", ").append(accessor).append(");\n");
+        }
+      }
+    }
+    out.append("  }\n\n");
+
+    out.append("  @Override\n");
+    out.append("  public ").append(recordName).append(" readFields(com.fasterxml.jackson.core.JsonParser p, com.fasterxml.jackson.databind.DeserializationContext ctxt) throws java.io.IOException {\n");
+    for (int i = 0; i < components.size(); i++) {
+      var type = components.get(i).asType();
+      out.append("    ").append(erasedName(type)).append(" f").append(i).append(" = ").append(defaultValue(type)).append(";\n");
+    }
+    out.append("    long seen = 0L;\n");
+    out.append("    for (java.lang.String field = firstField(p); field != null; field = nextField(p)) {\n");
+    out.append("      switch (field) {\n");
+    for (int i = 0; i < components.size(); i++) {
+      var component = components.get(i);
+      out.append("        case \"").append(component.getSimpleName()).append("\" -> {\n");
+      out.append("          f").append(i).append(" = ").append(readExpression(component.asType(), i)).append(";\n");
+      out.append("          seen |= 1L << ").append(i).append(";\n");
+      out.append("        }\n");
+    }
+    out.append("        default -> skipUnknownField(p, ctxt, field);\n");
+    out.append("      }\n");
+    out.append("    }\n");
+    for (int i = 0; i < components.size(); i++) {
+      out.append("    if ((seen & (1L << ").append(i).append(")) == 0L) f").append(i).append(" = ")
+          .append(absentExpression(components.get(i).asType(), i)).append(";\n");
+    }
+    out.append("    return new ").append(recordName).append("(");
+    for (int i = 0; i < components.size(); i++) {
+      if (i > 0) out.append(", ");
+      out.append("f").append(i);
+    }
+    out.append(");\n");
+    out.append("  }\n");
+    out.append("}\n");
+
+    var sourceFile = processingEnv.getFiler().createSourceFile(codecName, record);
+    try (Writer writer = sourceFile.openWriter()) {
+      writer.write(out.toString());
+    }
+  }
+
+  private static void appendEach(StringBuilder out, List<? extends RecordComponentElement> components, java.util.function.Function<RecordComponentElement, String> f) {
+    for (int i = 0; i < components.size(); i++) {
+      if (i > 0) out.append(", ");
+      out.append(f.apply(components.get(i)));
+    }
+  }
+
+  /**
+   * The types with a fast path in the codec base class, everything else is "Value" and delegated to Jackson.
+   */
+  private static String kindOf(TypeMirror type) {
+    return switch (type.getKind()) {
+      case INT -> "Int";
+      case LONG -> "Long";
+      case DOUBLE -> "Double";
+      case FLOAT -> "Float";
+      case BOOLEAN -> "Boolean";
+      case DECLARED -> ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals("java.lang.String") ? "String" : "Value";
+      default -> "Value";
+    };
+  }
+
+  private static String readExpression(TypeMirror type, int index) {
+    var kind = kindOf(type);
+    if (kind.equals("Value")) return "(" + erasedName(type) + ") readValue(p, ctxt, " + index + ")";
+    else return "read" + kind + "(p, ctxt, " + index + ")";
+  }
+
+  private static String absentExpression(TypeMirror type, int index) {
+    if (type.getKind().isPrimitive()) return "absent" + kindOf(type) + "(ctxt, " + index + ")";
+    else return "(" + erasedName(type) + ") absentValue(ctxt, " + index + ")";
+  }
+
+  private static String defaultValue(TypeMirror type) {
+    return switch (type.getKind()) {
+      case INT -> "0";
+      case LONG -> "0L";
+      case DOUBLE -> "0.0";
+      case FLOAT -> "0.0f";
+      case BOOLEAN -> "false";
+      default -> "null";
+    };
+  }
+
+  private static String erasedName(TypeMirror type) {
+    if (type.getKind().isPrimitive()) return type.getKind().name().toLowerCase();
+    else if (type instanceof ArrayType arrayType) return erasedName(arrayType.getComponentType()) + "[]";
+    else if (type instanceof DeclaredType declaredType) return ((TypeElement) declaredType.asElement()).getQualifiedName().toString();
+    else return "java.lang.Object";
+  }
+}
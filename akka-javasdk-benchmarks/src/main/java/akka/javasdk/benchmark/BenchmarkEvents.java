@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.benchmark;
+
+import akka.javasdk.annotations.TypeName;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Event records representative of what an event sourced entity persists.
+ */
+public final class BenchmarkEvents {
+
+  private BenchmarkEvents() {}
+
+  public sealed interface OrderEvent {
+
+    @TypeName("item-added")
+    record ItemAdded(String orderId, String productId, String name, int quantity, long priceCents)
+        implements OrderEvent {}
+
+    @TypeName("order-placed")
+    record OrderPlaced(String orderId, String customerId, List<LineItem> items, Instant placedAt)
+        implements OrderEvent {}
+  }
+
+  public record LineItem(String productId, String name, int quantity, long priceCents) {}
+
+  public static OrderEvent.ItemAdded itemAdded() {
+    return new OrderEvent.ItemAdded("order-1", "product-42", "Akka T-Shirt", 3, 1999);
+  }
+
+  public static OrderEvent.OrderPlaced orderPlaced(int lineItems) {
+    var items = new java.util.ArrayList<LineItem>(lineItems);
+    for (int i = 0; i < lineItems; i++) {
+      items.add(new LineItem("product-" + i, "Product number " + i, i % 5 + 1, 100L * i));
+    }
+    return new OrderEvent.OrderPlaced("order-1", "customer-7", items, Instant.parse("2024-11-01T10:15:30Z"));
+  }
+}
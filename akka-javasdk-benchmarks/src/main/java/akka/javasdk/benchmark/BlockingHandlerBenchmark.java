@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.benchmark;
+
+import akka.javasdk.impl.UserCodeExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import scala.concurrent.ExecutionContext$;
+import scala.concurrent.Future;
+import scala.concurrent.Future$;
+import scala.jdk.javaapi.FutureConverters;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handlers blocking for a few milliseconds, like user code waiting on a component client {@code invoke()}, called
+ * concurrently from a pool with a thread per core, like the runtime calls components. With {@code calling-thread}
+ * the handlers block the pool threads, with {@code virtual-threads} they run on virtual threads, see
+ * {@code akka.javasdk.executors.virtual-threads}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlockingHandlerBenchmark {
+
+  private static final int CONCURRENT_HANDLERS = 200;
+  private static final long BLOCKING_MILLIS = 5;
+
+  @Param({"calling-thread", "virtual-threads"})
+  public String executor;
+
+  private ExecutorService runtimePool;
+  private UserCodeExecutor userCodeExecutor;
+
+  @Setup
+  public void setup() {
+    runtimePool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    userCodeExecutor =
+        executor.equals("virtual-threads")
+            ? UserCodeExecutor.virtualThreads()
+            : UserCodeExecutor.callingThread(ExecutionContext$.MODULE$.fromExecutorService(runtimePool));
+  }
+
+  @TearDown
+  public void tearDown() {
+    runtimePool.shutdownNow();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CONCURRENT_HANDLERS)
+  public void blockingHandlers() throws Exception {
+    CompletableFuture<?>[] handled = new CompletableFuture<?>[CONCURRENT_HANDLERS];
+    for (int i = 0; i < CONCURRENT_HANDLERS; i++) {
+      handled[i] =
+          CompletableFuture.supplyAsync(
+                  () -> FutureConverters.asJava(userCodeExecutor.run(this::blockingHandler)), runtimePool)
+              .thenCompose(result -> result);
+    }
+    CompletableFuture.allOf(handled).get();
+  }
+
+  private Future<String> blockingHandler() {
+    try {
+      Thread.sleep(BLOCKING_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return Future$.MODULE$.successful("done");
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.benchmark;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.eventsourcedentity.EventSourcedEntity;
+import akka.javasdk.impl.ComponentDescriptor;
+import akka.javasdk.impl.eventsourcedentity.EventSourcedEntityImpl;
+import akka.javasdk.impl.eventsourcedentity.ReplayCostThresholds;
+import akka.javasdk.impl.serialization.JsonSerializer;
+import akka.runtime.sdk.spi.RegionInfo;
+import io.opentelemetry.api.OpenTelemetry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating the SDK side of an event sourced entity, as the runtime does when it activates an entity.
+ * {@code descriptorPerInstance} builds the component descriptor for every instance, like the SDK did before,
+ * {@code sharedDescriptor} uses the descriptor built once when the service starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityActivationBenchmark {
+
+  public record Order(int items, long totalCents, boolean placed) {}
+
+  @ComponentId("order")
+  public static class OrderEntity extends EventSourcedEntity<Order, BenchmarkEvents.OrderEvent> {
+
+    public Effect<Integer> items() {
+      return effects().reply(currentState().items());
+    }
+
+    public Effect<Long> total() {
+      return effects().reply(currentState().totalCents());
+    }
+
+    public Effect<Integer> addItem(BenchmarkEvents.OrderEvent.ItemAdded item) {
+      return effects().persist(item).thenReply(Order::items);
+    }
+
+    public Effect<Boolean> place(BenchmarkEvents.OrderEvent.OrderPlaced placed) {
+      return effects().persist(placed).thenReply(Order::placed);
+    }
+
+    @Override
+    public Order emptyState() {
+      return new Order(0, 0, false);
+    }
+
+    @Override
+    public Order applyEvent(BenchmarkEvents.OrderEvent event) {
+      return switch (event) {
+        case BenchmarkEvents.OrderEvent.ItemAdded added ->
+            new Order(currentState().items() + added.quantity(),
+                currentState().totalCents() + added.quantity() * added.priceCents(), false);
+        case BenchmarkEvents.OrderEvent.OrderPlaced placed ->
+            new Order(currentState().items(), currentState().totalCents(), true);
+      };
+    }
+  }
+
+  private JsonSerializer serializer;
+  private ComponentDescriptor componentDescriptor;
+  private RegionInfo regionInfo;
+  private int entityCount;
+
+  @Setup
+  public void setup() {
+    serializer = new JsonSerializer();
+    componentDescriptor = ComponentDescriptor.descriptorFor(OrderEntity.class, serializer);
+    regionInfo = new RegionInfo("");
+  }
+
+  private EventSourcedEntityImpl<Order, BenchmarkEvents.OrderEvent, OrderEntity> activate(
+      ComponentDescriptor descriptor) {
+    entityCount++;
+    return new EventSourcedEntityImpl<>(
+        () -> OpenTelemetry.noop().getTracer("benchmark"),
+        "order",
+        "order-" + entityCount,
+        serializer,
+        descriptor,
+        Order.class,
+        regionInfo,
+        ReplayCostThresholds.NoLimits(),
+        context -> new OrderEntity());
+  }
+
+  @Benchmark
+  public Object descriptorPerInstance() {
+    return activate(ComponentDescriptor.descriptorFor(OrderEntity.class, serializer));
+  }
+
+  @Benchmark
+  public Object sharedDescriptor() {
+    return activate(componentDescriptor);
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.benchmark;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.eventsourcedentity.EventSourcedEntity;
+import akka.javasdk.impl.ComponentDescriptor;
+import akka.javasdk.impl.eventsourcedentity.EventSourcedEntityImpl;
+import akka.javasdk.impl.eventsourcedentity.ReplayCostThresholds;
+import akka.javasdk.impl.serialization.JsonSerializer;
+import akka.runtime.sdk.spi.BytesPayload;
+import akka.runtime.sdk.spi.RegionInfo;
+import io.opentelemetry.api.OpenTelemetry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recovery of an event sourced entity from a journal of 10 000 events, delivered one by one as the runtime does.
+ * {@code newEventContext} decodes and applies each event like the entity did before, with a new event context for
+ * every event, {@code handleEvent} goes through the path the runtime calls, reusing one event context while
+ * recovering.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventReplayBenchmark {
+
+  private static final int EVENTS = 10000;
+
+  public record Order(int items, long totalCents) {}
+
+  @ComponentId("order")
+  public static class OrderEntity extends EventSourcedEntity<Order, BenchmarkEvents.OrderEvent> {
+
+    public Effect<Integer> items() {
+      return effects().reply(currentState().items());
+    }
+
+    @Override
+    public Order emptyState() {
+      return new Order(0, 0);
+    }
+
+    @Override
+    public Order applyEvent(BenchmarkEvents.OrderEvent event) {
+      return switch (event) {
+        case BenchmarkEvents.OrderEvent.ItemAdded added ->
+            new Order(currentState().items() + added.quantity(),
+                currentState().totalCents() + added.quantity() * added.priceCents());
+        case BenchmarkEvents.OrderEvent.OrderPlaced placed -> currentState();
+      };
+    }
+  }
+
+  private JsonSerializer serializer;
+  private EventSourcedEntityImpl<Order, BenchmarkEvents.OrderEvent, OrderEntity> entity;
+  private List<BytesPayload> journal;
+
+  @Setup
+  public void setup() {
+    serializer = new JsonSerializer();
+    for (Class<?> eventClass : BenchmarkEvents.OrderEvent.class.getPermittedSubclasses()) {
+      serializer.registerTypeHints(eventClass);
+    }
+    entity =
+        new EventSourcedEntityImpl<>(
+            () -> OpenTelemetry.noop().getTracer("benchmark"),
+            "order",
+            "order-1",
+            serializer,
+            ComponentDescriptor.descriptorFor(OrderEntity.class, serializer),
+            Order.class,
+            new RegionInfo(""),
+            ReplayCostThresholds.NoLimits(),
+            context -> new OrderEntity());
+
+    journal = new ArrayList<>(EVENTS);
+    for (int i = 0; i < EVENTS; i++) {
+      journal.add(serializer.toInternalBytes(BenchmarkEvents.itemAdded()));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(EVENTS)
+  public Object newEventContext() {
+    Object state = entity.emptyState();
+    long sequenceNumber = 1;
+    for (BytesPayload payload : journal) {
+      state = entity.entityHandleEvent(state, serializer.fromBytes(payload), sequenceNumber);
+      sequenceNumber++;
+    }
+    return state;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(EVENTS)
+  public Object handleEvent() {
+    Object state = entity.emptyState();
+    long sequenceNumber = 1;
+    for (BytesPayload payload : journal) {
+      state = entity.handleEvent(state, sequenceNumber, payload);
+      sequenceNumber++;
+    }
+    return state;
+  }
+}
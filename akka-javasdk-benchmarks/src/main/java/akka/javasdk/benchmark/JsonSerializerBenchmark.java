@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.benchmark;
+
+import akka.javasdk.impl.serialization.JsonSerializer;
+import akka.runtime.sdk.spi.BytesPayload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode of representative events through the SDK serializer. The {@code objectMapper*} benchmarks use
+ * the same object mapper directly, looking up the root type on every call, as a baseline for the serializer overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializerBenchmark {
+
+  private JsonSerializer serializer;
+  private ObjectMapper objectMapper;
+
+  private BenchmarkEvents.OrderEvent.ItemAdded smallEvent;
+  private BenchmarkEvents.OrderEvent.OrderPlaced largeEvent;
+  private BytesPayload smallEventBytes;
+  private BytesPayload largeEventBytes;
+
+  @Setup
+  public void setup() {
+    serializer = new JsonSerializer();
+    objectMapper = serializer.objectMapper();
+    // like the SDK does for the event types of an entity on startup
+    for (Class<?> eventClass : BenchmarkEvents.OrderEvent.class.getPermittedSubclasses()) {
+      serializer.registerTypeHints(eventClass);
+    }
+
+    smallEvent = BenchmarkEvents.itemAdded();
+    largeEvent = BenchmarkEvents.orderPlaced(50);
+    smallEventBytes = serializer.toBytes(smallEvent);
+    largeEventBytes = serializer.toBytes(largeEvent);
+  }
+
+  @Benchmark
+  public BytesPayload encodeSmallEvent() {
+    return serializer.toBytes(smallEvent);
+  }
+
+  @Benchmark
+  public BytesPayload encodeLargeEvent() {
+    return serializer.toBytes(largeEvent);
+  }
+
+  @Benchmark
+  public Object decodeSmallEvent() {
+    return serializer.fromBytes(smallEventBytes);
+  }
+
+  @Benchmark
+  public Object decodeLargeEvent() {
+    return serializer.fromBytes(largeEventBytes);
+  }
+
+  @Benchmark
+  public byte[] objectMapperEncodeSmallEvent() throws IOException {
+    return objectMapper.writerFor(smallEvent.getClass()).writeValueAsBytes(smallEvent);
+  }
+
+  @Benchmark
+  public Object objectMapperDecodeSmallEvent() throws IOException {
+    return objectMapper.readValue(
+        smallEventBytes.bytes().toArrayUnsafe(), BenchmarkEvents.OrderEvent.ItemAdded.class);
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.benchmark;
+
+import akka.javasdk.impl.MethodInvoker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calling one parameter command handlers through {@link MethodInvoker}, which binds each handler to a generated {@link
+ * java.util.function.BiFunction}, compared with {@link Method#invoke}, which the invoker used before, and with a direct
+ * call as the lower bound. The {@code several} benchmarks rotate over three handlers, like a router calling the
+ * handlers of different components from the same call site.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodInvokerBenchmark {
+
+  public static class Component {
+    private int count;
+
+    public Integer increase(Integer value) {
+      count += value;
+      return count;
+    }
+  }
+
+  public static class OtherComponent {
+    private long total;
+
+    public Long add(Integer value) {
+      total += value;
+      return total;
+    }
+  }
+
+  public static class ThirdComponent {
+    private String last = "";
+
+    public String remember(Integer value) {
+      last = value.toString();
+      return last;
+    }
+  }
+
+  private Component component;
+  private Method method;
+  private MethodInvoker invoker;
+  private Integer argument;
+
+  private Object[] components;
+  private Method[] methods;
+  private MethodInvoker[] invokers;
+  private int next;
+
+  @Setup
+  public void setup() throws NoSuchMethodException {
+    component = new Component();
+    method = Component.class.getMethod("increase", Integer.class);
+    invoker = new MethodInvoker(method);
+    argument = 1;
+
+    components = new Object[] {component, new OtherComponent(), new ThirdComponent()};
+    methods =
+        new Method[] {
+          method,
+          OtherComponent.class.getMethod("add", Integer.class),
+          ThirdComponent.class.getMethod("remember", Integer.class)
+        };
+    invokers = new MethodInvoker[methods.length];
+    for (int i = 0; i < methods.length; i++) {
+      invokers[i] = new MethodInvoker(methods[i]);
+    }
+  }
+
+  private int nextIndex() {
+    next = next == 2 ? 0 : next + 1;
+    return next;
+  }
+
+  @Benchmark
+  public Object methodInvoker() {
+    return invoker.invokeDirectly(component, argument);
+  }
+
+  @Benchmark
+  public Object reflection() throws Exception {
+    return method.invoke(component, argument);
+  }
+
+  @Benchmark
+  public Object direct() {
+    return component.increase(argument);
+  }
+
+  @Benchmark
+  public Object severalMethodInvoker() {
+    int i = nextIndex();
+    return invokers[i].invokeDirectly(components[i], argument);
+  }
+
+  @Benchmark
+  public Object severalReflection() throws Exception {
+    int i = nextIndex();
+    return methods[i].invoke(components[i], argument);
+  }
+}
@@ -560,7 +560,7 @@ public class TestKit {
         throw new IllegalStateException("Runtime was terminated.");
 
       // once runtime is started
-      componentClient = new ComponentClientImpl(componentClients, serializer, Option.empty(), runtimeActorSystem.executionContext(), runtimeActorSystem);
+      componentClient = new ComponentClientImpl(componentClients, serializer, Option.empty(), Option.empty(), runtimeActorSystem.executionContext(), runtimeActorSystem);
       selfHttpClient = new HttpClientImpl(runtimeActorSystem, "http://" + runtimeHost + ":" + runtimePort);
       httpClientProvider = startupContext.httpClientProvider();
       grpcClientProvider = startupContext.grpcClientProvider();
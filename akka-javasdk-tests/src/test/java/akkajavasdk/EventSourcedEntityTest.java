@@ -22,6 +22,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import java.util.Optional;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 
 import static java.time.temporal.ChronoUnit.SECONDS;
@@ -62,6 +63,25 @@ public class EventSourcedEntityTest extends TestKitSupport {
     assertThat(result).isTrue();
   }
 
+  @Test
+  public void verifyCommandBatch() {
+    var client = componentClient.forEventSourcedEntity("batched-hello");
+
+    var batch = client.batch();
+    var first = batch.add(CounterEntity::increase, 10);
+    var failed = batch.add(CounterEntity::increaseWithError, -1);
+    var second = batch.add(CounterEntity::increase, 5);
+    var get = batch.add(CounterEntity::get);
+    batch.invoke();
+
+    assertThat(first.toCompletableFuture().join()).isEqualTo(10);
+    var error = assertThrows(CompletionException.class, () -> failed.toCompletableFuture().join());
+    assertThat(error.getCause()).isInstanceOf(IllegalArgumentException.class);
+    assertThat(second.toCompletableFuture().join()).isEqualTo(15);
+    assertThat(get.toCompletableFuture().join()).isEqualTo(15);
+    assertThat(getCounter(client)).isEqualTo(15);
+  }
+
   @Test
   public void verifyCounterEventSourcedDeletion() {
     var counterId = "deleted-hello";
@@ -6,7 +6,12 @@ package akka.javasdk;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Allows to specify dedicated strategy for JSON schema evolution.
@@ -15,6 +20,13 @@ import java.util.List;
  * {@link JsonMigration#currentVersion}. You implement the transformation of the
  * JSON structure in the {@link JsonMigration#transform} method. If you have changed the
  * class name you should add it to {@link JsonMigration#supportedClassNames}.
+ * <p>
+ * Simple changes of top level fields, renamed, removed or added fields with a default value, can instead be declared
+ * with {@link JsonMigration#fieldChanges}. Those are applied while parsing the payload, without building an
+ * intermediate {@code JsonNode} tree, as long as {@link JsonMigration#transform} is not overridden.
+ * <p>
+ * One instance of the migration is created per migrated type and reused for all payloads of that type,
+ * so implementations must not keep mutable state.
  */
 public abstract class JsonMigration {
 
@@ -46,6 +58,20 @@ public abstract class JsonMigration {
     return json;
   }
 
+  /**
+   * Declare the changes of top level fields from the old version to the current version. The changes are applied
+   * before {@link JsonMigration#transform}. If {@code transform} is not overridden, the changes are applied while
+   * parsing, which is cheaper than a transformation of the full {@code JsonNode} tree.
+   * <p>
+   * The returned changes are resolved once per version and cached, so the result must only depend on
+   * {@code fromVersion}.
+   *
+   * @param fromVersion the version of the old data
+   */
+  public FieldChanges fieldChanges(int fromVersion) {
+    return FieldChanges.NONE;
+  }
+
   /**
    * Override this method if you have changed the class name. Return
    * all old class names.
@@ -53,4 +79,75 @@ public abstract class JsonMigration {
   public List<String> supportedClassNames() {
     return List.of();
   }
+
+  /**
+   * Changes of the top level fields of a JSON object, see {@link JsonMigration#fieldChanges}. Removed fields are
+   * matched by their old name, added fields are only added if not present in the payload after renaming.
+   * <p>
+   * Instances are immutable, create them with {@link FieldChanges#create()}.
+   */
+  public static final class FieldChanges {
+
+    /** No field changes. */
+    public static final FieldChanges NONE =
+        new FieldChanges(Map.of(), Set.of(), Map.of());
+
+    private final Map<String, String> renamed;
+    private final Set<String> removed;
+    private final Map<String, Object> added;
+
+    private FieldChanges(Map<String, String> renamed, Set<String> removed, Map<String, Object> added) {
+      this.renamed = renamed;
+      this.removed = removed;
+      this.added = added;
+    }
+
+    public static FieldChanges create() {
+      return NONE;
+    }
+
+    /**
+     * Rename a field, keeping its value.
+     */
+    public FieldChanges rename(String oldName, String newName) {
+      var newRenamed = new LinkedHashMap<>(renamed);
+      newRenamed.put(oldName, newName);
+      return new FieldChanges(Collections.unmodifiableMap(newRenamed), removed, added);
+    }
+
+    /**
+     * Remove a field, and its value, from the payload.
+     */
+    public FieldChanges remove(String name) {
+      var newRemoved = new LinkedHashSet<>(removed);
+      newRemoved.add(name);
+      return new FieldChanges(renamed, Collections.unmodifiableSet(newRemoved), added);
+    }
+
+    /**
+     * Add a field with the given value when it is missing in the payload. The value is serialized as JSON with the
+     * same object mapper as the migrated type.
+     */
+    public FieldChanges addWithDefault(String name, Object defaultValue) {
+      var newAdded = new LinkedHashMap<>(added);
+      newAdded.put(name, defaultValue);
+      return new FieldChanges(renamed, removed, Collections.unmodifiableMap(newAdded));
+    }
+
+    public Map<String, String> renamed() {
+      return renamed;
+    }
+
+    public Set<String> removed() {
+      return removed;
+    }
+
+    public Map<String, Object> added() {
+      return added;
+    }
+
+    public boolean isEmpty() {
+      return renamed.isEmpty() && removed.isEmpty() && added.isEmpty();
+    }
+  }
 }
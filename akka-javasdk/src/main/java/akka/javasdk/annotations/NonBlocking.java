@@ -0,0 +1,24 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to mark the update handlers of a {@link akka.javasdk.view.TableUpdater} as non-blocking.
+ * <p>
+ * The handlers are then run directly on the thread delivering the update, instead of being scheduled
+ * on the executor for user code, which makes updating the view table cheaper. The handlers must then
+ * never block, for example by waiting for the result of a call to another component or service.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface NonBlocking {
+}
@@ -30,4 +30,16 @@ public @interface Query {
    */
   boolean streamUpdates() default false;
 
+  /**
+   * For a query that returns a {@link akka.javasdk.view.View.QueryEffect}, keep the results of calls
+   * through the {@link akka.javasdk.client.ComponentClient} for this many milliseconds, and return them
+   * for calls with the same parameter instead of running the query again. The results may then be
+   * this much older than the view, and the same result object is returned to all callers, so it must
+   * not be modified.
+   * <p>
+   * The total number of cached results is limited by
+   * {@code akka.javasdk.view.query-cache.max-entries}. By default, results are not cached.
+   */
+  long cacheTtlMillis() default 0;
+
 }
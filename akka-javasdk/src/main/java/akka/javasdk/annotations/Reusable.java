@@ -0,0 +1,26 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to mark a {@link akka.javasdk.view.TableUpdater} whose instances can be reused for following
+ * updates, instead of creating a new instance for each update.
+ * <p>
+ * Instances that are not handling an update are kept by the view, and each update takes one of them, or
+ * creates a new one if none is available. An instance is only used by one update at a time, and is not tied
+ * to a thread. The update context and row state are reset after each update, but any state kept in fields of
+ * the updater is seen by later updates, so it must not keep any.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Reusable {
+}
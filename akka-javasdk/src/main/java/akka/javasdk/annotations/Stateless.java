@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to mark a {@link akka.javasdk.consumer.Consumer} as stateless, so that a single instance of it
+ * is used instead of creating a new instance for each message.
+ * <p>
+ * A single instance is created and used for all messages. The instance may handle several
+ * messages concurrently, so it must not keep any mutable state in its fields. The {@code messageContext()}
+ * and {@code timers()} of the consumer are only available while the handler method is running, on the
+ * thread calling it. If they are needed in asynchronous callbacks, they must be accessed in the handler
+ * method and passed to the callback.
+ * <p>
+ * The component client injected into a stateless consumer is created once, together with the instance, so calls
+ * made through it do not carry the metadata and tracing span of the message being handled, as they do for
+ * other consumers. To pass on metadata, set it on the call with {@code withMetadata}, using the
+ * {@code messageContext().metadata()} of the message.
+ * <p>
+ * A consumer can also be made stateless without the annotation, by listing its component id in
+ * {@code akka.javasdk.consumer.stateless-components}.
+ * <p>
+ * Table updaters can't be stateless, use {@link Reusable} to reuse their instances.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Stateless {
+}
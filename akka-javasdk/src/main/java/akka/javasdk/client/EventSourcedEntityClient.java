@@ -25,5 +25,13 @@ public interface EventSourcedEntityClient {
    */
   <T, A1, R> ComponentMethodRef1<A1, R> method(Function2<T, A1, EventSourcedEntity.Effect<R>> methodRef);
 
+  /**
+   * Start a batch of commands for the entity, handled together and persisted in a single write, for entities
+   * receiving many commands in bursts.
+   * <p>
+   * The batch is sent as a single request, so all of its commands share the same metadata, set with
+   * {@link EventSourcedEntityCommandBatch#withMetadata}, and are traced as one call.
+   */
+  EventSourcedEntityCommandBatch batch();
 
 }
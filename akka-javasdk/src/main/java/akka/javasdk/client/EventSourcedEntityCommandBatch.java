@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.client;
+
+import akka.Done;
+import akka.annotation.DoNotInherit;
+import akka.japi.function.Function;
+import akka.japi.function.Function2;
+import akka.javasdk.Metadata;
+import akka.javasdk.eventsourcedentity.EventSourcedEntity;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A batch of commands for one Event Sourced Entity, sent together when invoked. The entity handles the commands in
+ * the order they were added, each against the state left by the previous ones, and persists the events of all of
+ * them in a single write.
+ * <p>
+ * Each command gets its own reply: the completion stage returned when adding it completes with the reply of the
+ * command, or fails with an {@link IllegalArgumentException} if the command handler replied with an error. A
+ * command replying with an error does not persist its events, but does not affect the other commands of the batch.
+ * A command handler throwing an exception fails the whole batch, nothing is persisted and the replies of all
+ * commands fail.
+ * <p>
+ * All commands of a batch must be for the same entity class. They are sent as a single request: the command
+ * handlers all see the metadata of the batch in their command context, and one trace span covers the whole
+ * batch. Reply metadata of the individual commands is not passed on to the caller.
+ * <p>
+ * Not for user extension or instantiation, returned by {@link EventSourcedEntityClient#batch()}
+ */
+@DoNotInherit
+public interface EventSourcedEntityCommandBatch {
+
+  /**
+   * Add a call to a command handler without parameters, e.g. {@code CounterEntity::get}
+   *
+   * @return the reply of the command, completed when the batch has been handled
+   */
+  <T, R> CompletionStage<R> add(Function<T, EventSourcedEntity.Effect<R>> methodRef);
+
+  /**
+   * Add a call to a command handler with a parameter, e.g. {@code CounterEntity::increase}
+   *
+   * @return the reply of the command, completed when the batch has been handled
+   */
+  <T, A1, R> CompletionStage<R> add(Function2<T, A1, EventSourcedEntity.Effect<R>> methodRef, A1 arg);
+
+  /**
+   * @param metadata Metadata for the batch, seen by the handlers of all its commands
+   * @return This batch, with the metadata set
+   */
+  EventSourcedEntityCommandBatch withMetadata(Metadata metadata);
+
+  /**
+   * Send the commands added so far. Completes when the batch has been handled and the replies of the
+   * individual commands have been completed, or fails if the batch as a whole could not be handled.
+   */
+  CompletionStage<Done> invokeAsync();
+
+  /**
+   * Send the commands added so far and wait for the batch to be handled.
+   */
+  void invoke();
+}
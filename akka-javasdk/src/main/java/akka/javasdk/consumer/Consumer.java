@@ -41,8 +41,12 @@ import java.util.concurrent.CompletionStage;
  */
 public abstract class Consumer {
 
+  private static final ThreadLocal<MessageContext> currentMessageContext = new ThreadLocal<>();
+
   private volatile Optional<MessageContext> messageContext = Optional.empty();
 
+  private volatile boolean sharedInstance = false;
+
   /**
    * Additional context and metadata for a message handler.
    *
@@ -53,7 +57,13 @@ public abstract class Consumer {
   }
 
   private MessageContext messageContext(String errorMessage) {
-    return messageContext.orElseThrow(() -> new IllegalStateException(errorMessage));
+    if (sharedInstance) {
+      MessageContext current = currentMessageContext.get();
+      if (current != null) return current;
+      else throw new IllegalStateException(errorMessage);
+    } else {
+      return messageContext.orElseThrow(() -> new IllegalStateException(errorMessage));
+    }
   }
 
   /**
@@ -65,6 +75,27 @@ public abstract class Consumer {
     messageContext = context;
   }
 
+  /**
+   * INTERNAL API
+   * Marks this instance as shared between messages, its message context is then the one set for the current thread.
+   * @hidden
+   */
+  @InternalApi
+  public void _internalSetSharedInstance() {
+    sharedInstance = true;
+  }
+
+  /**
+   * INTERNAL API
+   * Sets the context of the message handled by the current thread, used for instances shared between messages.
+   * @hidden
+   */
+  @InternalApi
+  public static void _internalSetCurrentMessageContext(Optional<MessageContext> context) {
+    if (context.isPresent()) currentMessageContext.set(context.get());
+    else currentMessageContext.remove();
+  }
+
   public final Effect.Builder effects() {
     return ConsumerEffectImpl.builder();
   }
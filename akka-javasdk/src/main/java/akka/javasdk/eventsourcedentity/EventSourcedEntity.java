@@ -110,6 +110,10 @@ public abstract class EventSourcedEntity<S, E> {
    * Additional context and metadata when handling an event in the {@link #applyEvent(E)} method.
    *
    * <p>It will throw an exception if accessed from constructor or command handler.
+   *
+   * <p>The context is only valid while the event is handled. When recovering the entity, the same context
+   * object is updated for each replayed event, so a context kept by the entity shows the sequence number of
+   * later events.
    */
   protected final EventContext eventContext() {
     return eventContext.orElseThrow(
@@ -9,13 +9,15 @@ import akka.javasdk.annotations.Table;
 import akka.javasdk.impl.view.ViewEffectImpl;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Responsible for consuming events from a source and emit updates to one view table. Event subject (entity id
  * for entities, cloud event subject for events from a topic) maps one to one with a row in the table.
  * <p>
  * Concrete subclasses should be public static inner classes of the view they update a table for. A public no-parameter
- * constructor must exist and is used to create instances used.
+ * constructor must exist and is used to create instances used. A new instance is created for each update, unless
+ * the class is annotated with {@link akka.javasdk.annotations.Reusable}.
  * <p>
  * For a single table view the table name can be inferred from queries, but for a multi table view each class must
  * be annotated with {@link Table} identifying which table they update.
@@ -30,6 +32,7 @@ public abstract class TableUpdater<S> {
 
   private Optional<S> viewState = Optional.empty();
 
+  private Supplier<S> lazyViewState = null;
 
   private boolean handlingUpdates = false;
 
@@ -61,9 +64,33 @@ public abstract class TableUpdater<S> {
   @InternalApi
   public void _internalSetViewState(S state) {
     handlingUpdates = true;
+    lazyViewState = null;
     viewState = Optional.ofNullable(state);
   }
 
+  /**
+   * INTERNAL API
+   * The state is only created if the update handler accesses it.
+   * @hidden
+   */
+  @InternalApi
+  public void _internalSetLazyViewState(Supplier<S> state) {
+    handlingUpdates = true;
+    lazyViewState = state;
+    viewState = Optional.empty();
+  }
+
+  /**
+   * INTERNAL API
+   * @hidden
+   */
+  @InternalApi
+  public void _internalClearViewState() {
+    handlingUpdates = false;
+    lazyViewState = null;
+    viewState = Optional.empty();
+  }
+
   /**
    * Returns the current state of the row for the subject that is being updated.
    *
@@ -78,8 +105,13 @@ public abstract class TableUpdater<S> {
   protected final S rowState() {
     // user may call this method inside a command handler and get a null because it's legal
     // to have emptyState set to null.
-    if (handlingUpdates) return viewState.orElse(null);
-    else
+    if (handlingUpdates) {
+      if (lazyViewState != null) {
+        viewState = Optional.ofNullable(lazyViewState.get());
+        lazyViewState = null;
+      }
+      return viewState.orElse(null);
+    } else
       throw new IllegalStateException("Current state is only available when handling updates.");
   }
 
@@ -4,6 +4,7 @@
 
 package akka.javasdk.workflow;
 
+import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -108,6 +109,30 @@ public class StepBuilder {
     return new AsyncCallStepBuilder<>(name, Void.class, (Void v) -> callSupplier.get());
   }
 
+  /**
+   * Build a step action calling an async function for each element of a list, with a bounded number of calls
+   * in flight at the same time.
+   * <p>
+   * The step must be transitioned to with a {@link List} of elements as input. The results of the calls, in the
+   * same order as the elements, are made available to this workflow via the {@code andThen} method, which is
+   * only called once all elements have been processed. This avoids a transition, and a persisted state update,
+   * for each element.
+   * <p>
+   * A failed call for an element is retried according to {@link ParallelCallStepBuilder#elementMaxRetries(int)},
+   * without calling the function again for the other elements. If an element still fails after that, the step
+   * fails and is retried as a whole according to the default retry strategy or the one defined in the step
+   * configuration.
+   *
+   * @param elementClass Class of the elements of the input list.
+   * @param callFactory  Factory method for creating the async call for one element.
+   * @param <Input>      Type of the elements of the input list, provided by transition method.
+   * @param <Output>     Output of the async call for one element.
+   * @return Step builder.
+   */
+  public <Input, Output> ParallelCallStepBuilder<Input, Output> parallelCall(Class<Input> elementClass, Function<Input, CompletionStage<Output>> callFactory) {
+    return new ParallelCallStepBuilder<>(name, elementClass, callFactory);
+  }
+
   public static class CallStepBuilder<CallInput, CallOutput> {
     final private String name;
 
@@ -240,4 +265,57 @@ public class StepBuilder {
       return new Workflow.AsyncCallStep<>(name, callInputClass, callFunc, null, __ -> transitionFunc.get());
     }
   }
+
+  public static class ParallelCallStepBuilder<CallInput, CallOutput> {
+
+    public static final int DEFAULT_MAX_PARALLELISM = 8;
+
+    final private String name;
+
+    final private Class<CallInput> callInputClass;
+    final private Function<CallInput, CompletionStage<CallOutput>> callFunc;
+    private int maxParallelism = DEFAULT_MAX_PARALLELISM;
+    private int elementMaxRetries = 0;
+
+    ParallelCallStepBuilder(String name, Class<CallInput> callInputClass, Function<CallInput, CompletionStage<CallOutput>> callFunc) {
+      this.name = name;
+      this.callInputClass = callInputClass;
+      this.callFunc = callFunc;
+    }
+
+    /**
+     * The maximum number of calls in flight at the same time. Defaults to {@value #DEFAULT_MAX_PARALLELISM}.
+     */
+    public ParallelCallStepBuilder<CallInput, CallOutput> maxParallelism(int maxParallelism) {
+      if (maxParallelism < 1)
+        throw new IllegalArgumentException("maxParallelism must be at least 1, was " + maxParallelism);
+      this.maxParallelism = maxParallelism;
+      return this;
+    }
+
+    /**
+     * The number of times a failed call for one element is retried before the step fails. Defaults to 0.
+     */
+    public ParallelCallStepBuilder<CallInput, CallOutput> elementMaxRetries(int elementMaxRetries) {
+      if (elementMaxRetries < 0)
+        throw new IllegalArgumentException("elementMaxRetries must not be negative, was " + elementMaxRetries);
+      this.elementMaxRetries = elementMaxRetries;
+      return this;
+    }
+
+    /**
+     * Transition to the next step based on the results of the calls for all elements.
+     * <p>
+     * The {@link Function} passed to this method receives the results of the calls, in the same order as the
+     * elements of the step input, and should return an {@link Workflow.Effect.TransitionalEffect} describing
+     * the next step to transition to.
+     *
+     * @param transitionInputClass Class of the result of the call for one element.
+     * @param transitionFunc       Function that transform the results to a {@link Workflow.Effect.TransitionalEffect}
+     * @return ParallelCallStep
+     */
+    public Workflow.ParallelCallStep<CallInput, CallOutput, ?> andThen(Class<CallOutput> transitionInputClass, Function<List<CallOutput>, Workflow.Effect.TransitionalEffect<Void>> transitionFunc) {
+      return new Workflow.ParallelCallStep<>(name, callInputClass, callFunc, maxParallelism, elementMaxRetries, transitionInputClass, transitionFunc);
+    }
+  }
 }
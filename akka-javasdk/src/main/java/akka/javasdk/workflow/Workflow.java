@@ -12,10 +12,10 @@ import akka.javasdk.workflow.Workflow.RecoverStrategy.MaxRetries;
 
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -48,6 +48,10 @@ import java.util.function.Supplier;
  * </ul>
  * <p>
  * Concrete class must be annotated with {@link akka.javasdk.annotations.ComponentId}.
+ * <p>
+ * An instance of the workflow, and the {@link #definition()} it returns, may be reused for several
+ * commands and steps of the same workflow, so the workflow should not keep any state in its fields
+ * other than the dependencies passed to its constructor.
  *
  * @param <S> The type of the state for this workflow.
  */
@@ -108,7 +112,9 @@ public abstract class Workflow<S> {
    * Returns the state as currently stored.
    *
    * <p>Note that modifying the state directly will not update it in storage. To save the state, one
-   * must call {{@code effects().updateState()}}.
+   * must call {{@code effects().updateState()}}. The state object returned in a step may be returned again in
+   * the transition that follows it, and a state passed to {@code updateState()} may be returned in the next command,
+   * step or transition, so it should be immutable, or at least never be modified.
    *
    * <p>This method can only be called when handling a command. Calling it outside a method (eg: in
    * the constructor) will raise a IllegalStateException exception.
@@ -153,6 +159,20 @@ public abstract class Workflow<S> {
     this.currentState = Optional.ofNullable(state);
   }
 
+  /**
+   * INTERNAL API
+   *
+   * @hidden
+   */
+  @InternalApi
+  public void _internalClear() {
+    this.stateHasBeenSet = false;
+    this.currentState = Optional.empty();
+    this.commandContext = Optional.empty();
+    this.timerScheduler = Optional.empty();
+    this.deleted = false;
+  }
+
 
   /**
    * @return A workflow definition in a form of steps and transitions between them.
@@ -352,7 +372,7 @@ public abstract class Workflow<S> {
 
     final private List<Step> steps = new ArrayList<>();
     final private List<StepConfig> stepConfigs = new ArrayList<>();
-    final private Set<String> uniqueNames = new HashSet<>();
+    final private Map<String, Step> stepsByName = new HashMap<>();
     private Optional<Duration> workflowTimeout = Optional.empty();
     private Optional<String> failoverStepName = Optional.empty();
     private Optional<Object> failoverStepInput = Optional.empty();
@@ -365,7 +385,7 @@ public abstract class Workflow<S> {
     }
 
     public Optional<Step> findByName(String name) {
-      return steps.stream().filter(s -> s.name().equals(name)).findFirst();
+      return Optional.ofNullable(stepsByName.get(name));
     }
 
     /**
@@ -394,11 +414,11 @@ public abstract class Workflow<S> {
     }
 
     private void addStepWithValidation(Step step) {
-      if (uniqueNames.contains(step.name()))
+      if (stepsByName.containsKey(step.name()))
         throw new IllegalArgumentException("Name '" + step.name() + "' is already in use by another step in this workflow");
 
       this.steps.add(step);
-      this.uniqueNames.add(step.name());
+      this.stepsByName.put(step.name(), step);
     }
 
 
@@ -626,6 +646,55 @@ public abstract class Workflow<S> {
     }
   }
 
+  public static final class ParallelCallStep<CallInput, CallOutput, FailoverInput> implements Step {
+
+    final private String _name;
+    final public Function<CallInput, CompletionStage<CallOutput>> callFunc;
+    final public Function<List<CallOutput>, Effect.TransitionalEffect<Void>> transitionFunc;
+    final public Class<CallInput> callInputClass;
+    final public Class<CallOutput> transitionInputClass;
+    final public int maxParallelism;
+    final public int elementMaxRetries;
+    private Optional<Duration> _timeout = Optional.empty();
+
+    /**
+     * Not for direct user construction, instances are created through the workflow DSL
+     */
+    public ParallelCallStep(String name,
+                            Class<CallInput> callInputClass,
+                            Function<CallInput, CompletionStage<CallOutput>> callFunc,
+                            int maxParallelism,
+                            int elementMaxRetries,
+                            Class<CallOutput> transitionInputClass,
+                            Function<List<CallOutput>, Effect.TransitionalEffect<Void>> transitionFunc) {
+      _name = name;
+      this.callInputClass = callInputClass;
+      this.callFunc = callFunc;
+      this.maxParallelism = maxParallelism;
+      this.elementMaxRetries = elementMaxRetries;
+      this.transitionInputClass = transitionInputClass;
+      this.transitionFunc = transitionFunc;
+    }
+
+    @Override
+    public String name() {
+      return this._name;
+    }
+
+    @Override
+    public Optional<Duration> timeout() {
+      return this._timeout;
+    }
+
+    /**
+     * Define a step timeout, covering the calls for all elements.
+     */
+    public ParallelCallStep<CallInput, CallOutput, FailoverInput> timeout(Duration timeout) {
+      this._timeout = Optional.of(timeout);
+      return this;
+    }
+  }
+
   public static class StepConfig {
     public final String stepName;
     public final Optional<Duration> timeout;
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.concurrent.ExecutionContext
+
+import akka.annotation.InternalApi
+import org.slf4j.LoggerFactory
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[javasdk] object ComponentExecutors {
+
+  // the kinds of components that can have their own pool, the keys of akka.javasdk.executors.pool-size
+  val ViewCategory = "view"
+  val ConsumerCategory = "consumer"
+  val WorkflowCategory = "workflow"
+  val TimedActionCategory = "timed-action"
+
+  val Categories: Set[String] = Set(ViewCategory, ConsumerCategory, WorkflowCategory, TimedActionCategory)
+
+  /**
+   * Gauges of a dedicated pool, registered as `akka.javasdk:type=ComponentExecutor,scope=<category or
+   * component>,name=<category or component id>` with the platform MBean server. The queue of a pool is unbounded, an
+   * overloaded pool is only visible as a growing queue depth.
+   */
+  trait ComponentExecutorGaugesMXBean {
+    def getPoolSize: Int
+    def getActiveThreads: Int
+    def getQueueDepth: Int
+    def getCompletedTasks: Long
+  }
+
+  final class DedicatedPool(val scope: String, val name: String, size: Int) extends ComponentExecutorGaugesMXBean {
+
+    private val threadFactory: ThreadFactory = new ThreadFactory {
+      private val threadCount = new AtomicInteger()
+      override def newThread(runnable: Runnable): Thread = {
+        val thread = new Thread(runnable, s"akka-javasdk-$name-${threadCount.incrementAndGet()}")
+        thread.setDaemon(true)
+        thread
+      }
+    }
+
+    // unbounded queue: handlers are never rejected, when all threads are busy they wait for one, see getQueueDepth
+    private val pool =
+      new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue[Runnable](), threadFactory)
+
+    val executionContext: ExecutionContext = ExecutionContext.fromExecutorService(pool)
+
+    override def getPoolSize: Int = pool.getPoolSize
+    override def getActiveThreads: Int = pool.getActiveCount
+    override def getQueueDepth: Int = pool.getQueue.size()
+    override def getCompletedTasks: Long = pool.getCompletedTaskCount
+
+    def shutdown(): Unit = pool.shutdown()
+  }
+
+  private val CategoryScope = "category"
+  private val ComponentScope = "component"
+}
+
+/**
+ * INTERNAL API
+ *
+ * The executors running user code of the components of a service. By default, all components share the execution
+ * context of the SDK, kinds of components or individual components can be given a dedicated pool of threads, so that,
+ * for example, views being rebuilt can not take all threads from latency sensitive consumers.
+ *
+ * @param categoryPoolSizes
+ *   pool size per kind of component, absent or 0 for sharing the SDK execution context
+ * @param componentPoolSizes
+ *   pool size per component id, takes precedence over the pool of the kind of component
+ */
+@InternalApi
+private[javasdk] final class ComponentExecutors(
+    sdkExecutionContext: ExecutionContext,
+    virtualThreads: Boolean,
+    categoryPoolSizes: Map[String, Int],
+    componentPoolSizes: Map[String, Int]) {
+  import ComponentExecutors._
+
+  private val log = LoggerFactory.getLogger(classOf[ComponentExecutors])
+
+  // keyed by category or component id, created when the first component using them is set up
+  private val pools = new ConcurrentHashMap[String, DedicatedPool]()
+
+  private val defaultUserCodeExecutor =
+    if (virtualThreads) UserCodeExecutor.virtualThreads()
+    else UserCodeExecutor.callingThread(sdkExecutionContext)
+
+  /**
+   * Where handlers and workflow steps of the component run.
+   */
+  def userCodeExecutor(category: String, componentId: String): UserCodeExecutor =
+    dedicatedPool(category, componentId) match {
+      case Some(pool) => UserCodeExecutor.dispatched(pool.executionContext)
+      case None       => defaultUserCodeExecutor
+    }
+
+  /**
+   * Where the update handlers of a view run.
+   */
+  def viewExecutionContext(componentId: String): ExecutionContext =
+    dedicatedPool(ViewCategory, componentId) match {
+      case Some(pool) => pool.executionContext
+      case None       => sdkExecutionContext
+    }
+
+  private def dedicatedPool(category: String, componentId: String): Option[DedicatedPool] =
+    componentPoolSizes.get(componentId).filter(_ > 0) match {
+      case Some(size) =>
+        Some(pools.computeIfAbsent(s"$ComponentScope:$componentId", _ => createPool(ComponentScope, componentId, size)))
+      case None =>
+        categoryPoolSizes.get(category).filter(_ > 0).map { size =>
+          pools.computeIfAbsent(s"$CategoryScope:$category", _ => createPool(CategoryScope, category, size))
+        }
+    }
+
+  private def createPool(scope: String, name: String, size: Int): DedicatedPool = {
+    log.debug(s"Creating dedicated executor [$name] with [$size] threads")
+    val pool = new DedicatedPool(scope, name, size)
+    ManagementBeans.register("ComponentExecutor", List("scope" -> scope), name, pool)
+    pool
+  }
+
+  /**
+   * Stop the dedicated pools and the virtual thread executor once the service is terminated, tasks already submitted
+   * are still run.
+   */
+  def shutdown(): Unit = {
+    pools.values().forEach { pool =>
+      pool.shutdown()
+      ManagementBeans.unregister("ComponentExecutor", List("scope" -> pool.scope), pool.name)
+    }
+    defaultUserCodeExecutor.shutdown()
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl
+
+import java.lang.management.ManagementFactory
+import javax.management.ObjectName
+
+import scala.util.control.NonFatal
+
+import akka.annotation.InternalApi
+import org.slf4j.LoggerFactory
+
+/**
+ * INTERNAL API
+ *
+ * The SDK has no metrics API of its own, gauges and counters are exposed as MXBeans with the platform MBean server.
+ */
+@InternalApi
+private[javasdk] object ManagementBeans {
+
+  private val log = LoggerFactory.getLogger(getClass)
+
+  /**
+   * Register under `akka.javasdk:type=<beanType>,name=<name>`, replacing the bean of a previous service in the same
+   * JVM, for example in tests.
+   */
+  def register(beanType: String, name: String, bean: AnyRef): Unit =
+    register(beanType, Nil, name, bean)
+
+  /**
+   * Register under `akka.javasdk:type=<beanType>,<key>=<value>,...,name=<name>`, for beans of the same type that need
+   * more than the name to be told apart. The values of the key properties are not quoted.
+   */
+  def register(beanType: String, keyProperties: Seq[(String, String)], name: String, bean: AnyRef): Unit =
+    try {
+      val server = ManagementFactory.getPlatformMBeanServer
+      val objectName = objectNameFor(beanType, keyProperties, name)
+      if (server.isRegistered(objectName)) server.unregisterMBean(objectName)
+      server.registerMBean(bean, objectName)
+    } catch {
+      case NonFatal(ex) => log.warn(s"Could not register the management bean [$beanType] for [$name]", ex)
+    }
+
+  def unregister(beanType: String, keyProperties: Seq[(String, String)], name: String): Unit =
+    try {
+      val server = ManagementFactory.getPlatformMBeanServer
+      val objectName = objectNameFor(beanType, keyProperties, name)
+      if (server.isRegistered(objectName)) server.unregisterMBean(objectName)
+    } catch {
+      case NonFatal(ex) => log.debug(s"Could not unregister the management bean [$beanType] for [$name]", ex)
+    }
+
+  private def objectNameFor(beanType: String, keyProperties: Seq[(String, String)], name: String): ObjectName = {
+    val extraKeys = keyProperties.map { case (key, value) => s",$key=$value" }.mkString
+    new ObjectName(s"akka.javasdk:type=$beanType$extraKeys,name=${ObjectName.quote(name)}")
+  }
+}
@@ -5,10 +5,52 @@
 package akka.javasdk.impl
 
 import akka.annotation.InternalApi
+import java.lang.invoke.LambdaMetafactory
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
 import java.lang.reflect.InvocationTargetException
 import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+import java.util.function.BiFunction
+import java.util.function.{ Function => JFunction }
 
 import scala.util.control.Exception.Catcher
+import scala.util.control.NonFatal
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[impl] object MethodInvoker {
+
+  /**
+   * Generates an implementation of `functionalInterface` that calls the method directly, a `Function` for methods
+   * without parameters and a `BiFunction` for methods with one. Returns `null` if the method cannot be bound that way,
+   * for example when its class is in a module that isn't open to the SDK, in which case reflection is used instead.
+   */
+  private def functionFor(method: Method, functionalInterface: Class[_]): AnyRef =
+    if (Modifier.isStatic(method.getModifiers) || method.getReturnType == Void.TYPE) null
+    else {
+      try {
+        // the generated class is defined next to the component class, so it can call non-public handlers
+        val lookup = MethodHandles.privateLookupIn(method.getDeclaringClass, MethodHandles.lookup())
+        val target = lookup.unreflect(method)
+        val samType = MethodType.genericMethodType(method.getParameterCount + 1)
+        LambdaMetafactory
+          .metafactory(
+            lookup,
+            "apply",
+            MethodType.methodType(functionalInterface),
+            samType,
+            target,
+            target.`type`().wrap())
+          .getTarget
+          .invoke()
+      } catch {
+        case NonFatal(_) => null
+      }
+    }
+}
 
 /**
  * INTERNAL API
@@ -16,20 +58,35 @@ import scala.util.control.Exception.Catcher
 @InternalApi
 private[impl] final case class MethodInvoker(method: Method) {
 
+  // bound once per handler method, calling them skips the access checks of Method.invoke and the wrapping of thrown
+  // exceptions in InvocationTargetException, see MethodInvokerBenchmark
+  private val function: JFunction[AnyRef, AnyRef] =
+    if (method.getParameterCount == 0)
+      MethodInvoker.functionFor(method, classOf[JFunction[_, _]]).asInstanceOf[JFunction[AnyRef, AnyRef]]
+    else null
+  private val biFunction: BiFunction[AnyRef, AnyRef, AnyRef] =
+    if (method.getParameterCount == 1)
+      MethodInvoker.functionFor(method, classOf[BiFunction[_, _, _]]).asInstanceOf[BiFunction[AnyRef, AnyRef, AnyRef]]
+    else null
+
   /**
    * To invoke methods with arity zero.
    */
   def invoke(componentInstance: AnyRef): AnyRef = {
-    try method.invoke(componentInstance)
-    catch unwrapInvocationTargetException()
+    if (function != null) function.apply(componentInstance)
+    else
+      try method.invoke(componentInstance)
+      catch unwrapInvocationTargetException()
   }
 
   /**
    * To invoke a methods with a deserialized payload
    */
   def invokeDirectly(componentInstance: AnyRef, payload: AnyRef): AnyRef = {
-    try method.invoke(componentInstance, payload)
-    catch unwrapInvocationTargetException()
+    if (biFunction != null) biFunction.apply(componentInstance, payload)
+    else
+      try method.invoke(componentInstance, payload)
+      catch unwrapInvocationTargetException()
   }
 
   private def unwrapInvocationTargetException(): Catcher[AnyRef] = {
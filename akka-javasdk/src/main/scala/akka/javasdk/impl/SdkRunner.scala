@@ -36,6 +36,7 @@ import akka.javasdk.Tracing
 import akka.javasdk.annotations.ComponentId
 import akka.javasdk.annotations.GrpcEndpoint
 import akka.javasdk.annotations.Setup
+import akka.javasdk.annotations.Stateless
 import akka.javasdk.annotations.http.HttpEndpoint
 import akka.javasdk.client.ComponentClient
 import akka.javasdk.consumer.Consumer
@@ -55,21 +56,25 @@ import akka.javasdk.impl.Validations.Invalid
 import akka.javasdk.impl.Validations.Valid
 import akka.javasdk.impl.Validations.Validation
 import akka.javasdk.impl.client.ComponentClientImpl
+import akka.javasdk.impl.client.ViewQueryCache
 import akka.javasdk.impl.consumer.ConsumerImpl
 import akka.javasdk.impl.eventsourcedentity.EventSourcedEntityImpl
 import akka.javasdk.impl.grpc.GrpcClientProviderImpl
 import akka.javasdk.impl.http.HttpClientProviderImpl
 import akka.javasdk.impl.http.JwtClaimsImpl
 import akka.javasdk.impl.http.QueryParamsImpl
+import akka.javasdk.impl.keyvalueentity.KeyValueEntityCounters
 import akka.javasdk.impl.keyvalueentity.KeyValueEntityImpl
 import akka.javasdk.impl.reflection.Reflect
 import akka.javasdk.impl.reflection.Reflect.Syntax.AnnotatedElementOps
 import akka.javasdk.impl.serialization.JsonSerializer
+import akka.javasdk.impl.serialization.RecordCodec
 import akka.javasdk.impl.telemetry.SpanTracingImpl
 import akka.javasdk.impl.telemetry.TraceInstrumentation
 import akka.javasdk.impl.timedaction.TimedActionImpl
 import akka.javasdk.impl.timer.TimerSchedulerImpl
 import akka.javasdk.impl.view.ViewDescriptorFactory
+import akka.javasdk.impl.workflow.WorkflowDefinitionCache
 import akka.javasdk.impl.workflow.WorkflowImpl
 import akka.javasdk.keyvalueentity.KeyValueEntity
 import akka.javasdk.keyvalueentity.KeyValueEntityContext
@@ -77,7 +82,6 @@ import akka.javasdk.timedaction.TimedAction
 import akka.javasdk.timer.TimerScheduler
 import akka.javasdk.view.View
 import akka.javasdk.workflow.Workflow
-import akka.javasdk.workflow.Workflow.RunnableStep
 import akka.javasdk.workflow.WorkflowContext
 import akka.runtime.sdk.spi
 import akka.runtime.sdk.spi.ComponentClients
@@ -235,10 +239,11 @@ private object ComponentLocator {
   private val ComponentDescriptorResourcePath = "META-INF/akka-javasdk-components.conf"
   private val DescriptorComponentBasePath = "akka.javasdk.components"
   private val DescriptorServiceSetupEntryPath = "akka.javasdk.service-setup"
+  private val DescriptorJsonCodecsEntryPath = "akka.javasdk.json-codecs"
 
   private val logger = LoggerFactory.getLogger(getClass)
 
-  case class LocatedClasses(components: Seq[Class[_]], service: Option[Class[_]])
+  case class LocatedClasses(components: Seq[Class[_]], service: Option[Class[_]], jsonCodecs: Seq[String])
 
   def locateUserComponents(system: ActorSystem[_]): LocatedClasses = {
     val kalixComponentTypeAndBaseClasses: Map[String, Class[_]] =
@@ -283,6 +288,12 @@ private object ComponentLocator {
         Seq.empty
     }.toSeq
 
+    // serializers for records generated by the annotation processor, loaded and validated by the Sdk
+    val jsonCodecs =
+      if (descriptorConfig.hasPath(DescriptorJsonCodecsEntryPath))
+        descriptorConfig.getStringList(DescriptorJsonCodecsEntryPath).asScala.toSeq
+      else Seq.empty
+
     if (descriptorConfig.hasPath(DescriptorServiceSetupEntryPath)) {
       // central config/lifecycle class
       val serviceSetupClassName = descriptorConfig.getString(DescriptorServiceSetupEntryPath)
@@ -292,9 +303,9 @@ private object ComponentLocator {
       } else {
         logger.warn("Ignoring service class [{}] as it does not have the the @Setup annotation", serviceSetup)
       }
-      LocatedClasses(components, Some(serviceSetup))
+      LocatedClasses(components, Some(serviceSetup), jsonCodecs)
     } else {
-      LocatedClasses(components, None)
+      LocatedClasses(components, None, jsonCodecs)
     }
   }
 }
@@ -344,17 +355,32 @@ private final class Sdk(
   import Sdk._
 
   private val logger = LoggerFactory.getLogger(getClass)
-  private val serializer = new JsonSerializer
   private lazy val retries = new RetriesImpl(system.classicSystem)
-  private val ComponentLocator.LocatedClasses(componentClasses, maybeServiceClass) =
+  private val ComponentLocator.LocatedClasses(componentClasses, maybeServiceClass, jsonCodecClassNames) =
     ComponentLocator.locateUserComponents(system)
   @volatile private var dependencyProviderOpt: Option[DependencyProvider] = dependencyProviderOverride
 
   private val applicationConfig = ApplicationConfig(system).getConfig
   private val sdkSettings = Settings(applicationConfig.getConfig("akka.javasdk"))
 
+  private val serializer = {
+    val codecClasses =
+      if (sdkSettings.useGeneratedCodecs)
+        RecordCodec.loadCodecClasses(jsonCodecClassNames, system.dynamicAccess.classLoader)
+      else Seq.empty
+    logger.debug("Using [{}] generated JSON codecs", codecClasses.size)
+    JsonSerializer.internalWithGeneratedCodecs(codecClasses, binaryEncoding = sdkSettings.binaryInternalEncoding)
+  }
+
   private val sdkTracerFactory = () => tracerFactory(TraceInstrumentation.InstrumentationScopeName)
 
+  private val componentExecutors = new ComponentExecutors(
+    sdkExecutionContext,
+    sdkSettings.virtualThreads,
+    sdkSettings.executorPoolSizes,
+    sdkSettings.componentExecutorPoolSizes)
+  system.whenTerminated.onComplete(_ => componentExecutors.shutdown())(ExecutionContext.parasitic)
+
   private lazy val httpClientProvider = new HttpClientProviderImpl(
     system,
     None,
@@ -412,20 +438,24 @@ private final class Sdk(
   }
 
   // we need a method instead of function in order to have type params
-  // to late use in Reflect.workflowStateType
   private def workflowInstanceFactory[S, W <: Workflow[S]](
       factoryContext: SpiWorkflow.FactoryContext,
-      clz: Class[W]): SpiWorkflow = {
+      clz: Class[W],
+      componentDescriptor: ComponentDescriptor,
+      definitionCache: WorkflowDefinitionCache,
+      userCodeExecutor: UserCodeExecutor): SpiWorkflow = {
     logger.debug(s"Registering Workflow [${clz.getName}]")
     new WorkflowImpl[S, W](
       factoryContext.workflowId,
       clz,
       serializer,
-      ComponentDescriptor.descriptorFor(clz, serializer),
+      componentDescriptor,
       timerClient = runtimeComponentClients.timerClient,
       sdkExecutionContext,
       sdkTracerFactory,
       regionInfo,
+      definitionCache,
+      userCodeExecutor,
       { context =>
 
         val workflow = wiredInstance(clz) {
@@ -435,24 +465,8 @@ private final class Sdk(
           }
         }
 
-        // FIXME pull this inline setup stuff out of SdkRunner and into some workflow class
-        val workflowStateType: Class[_] = Reflect.workflowStateType[S, W](workflow)
-        serializer.registerTypeHints(workflowStateType)
-
-        workflow
-          .definition()
-          .getSteps
-          .asScala
-          .flatMap {
-            case asyncCallStep: Workflow.AsyncCallStep[_, _, _] =>
-              if (asyncCallStep.transitionInputClass == null) List(asyncCallStep.callInputClass)
-              else List(asyncCallStep.callInputClass, asyncCallStep.transitionInputClass)
-            case callStep: Workflow.CallStep[_, _, _] =>
-              if (callStep.transitionInputClass == null) List(callStep.callInputClass)
-              else List(callStep.callInputClass, callStep.transitionInputClass)
-            case runnable: RunnableStep => List.empty
-          }
-          .foreach(serializer.registerTypeHints)
+        // only done for the first instance of the class, the definition is not built for the others
+        definitionCache.registerTypeHints(workflow, workflow.definition())
 
         workflow
       })
@@ -498,15 +512,21 @@ private final class Sdk(
 
         val entityStateType: Class[AnyRef] = Reflect.eventSourcedEntityStateType(clz).asInstanceOf[Class[AnyRef]]
 
+        // the descriptor only depends on the class, built once and shared by all entity instances
+        val componentDescriptor = ComponentDescriptor.descriptorFor(clz, serializer)
+        val replayCostThresholds =
+          sdkSettings.replayCostThresholds.getOrElse(componentId, sdkSettings.replayCostThresholds(""))
+
         val instanceFactory: SpiEventSourcedEntity.FactoryContext => SpiEventSourcedEntity = { factoryContext =>
           new EventSourcedEntityImpl[AnyRef, AnyRef, EventSourcedEntity[AnyRef, AnyRef]](
             sdkTracerFactory,
             componentId,
             factoryContext.entityId,
             serializer,
-            ComponentDescriptor.descriptorFor(clz, serializer),
+            componentDescriptor,
             entityStateType,
             regionInfo,
+            replayCostThresholds,
             context =>
               wiredInstance(clz.asInstanceOf[Class[EventSourcedEntity[AnyRef, AnyRef]]]) {
                 // remember to update component type API doc and docs if changing the set of injectables
@@ -534,6 +554,15 @@ private final class Sdk(
 
         val entityStateType: Class[AnyRef] = Reflect.keyValueEntityStateType(clz).asInstanceOf[Class[AnyRef]]
 
+        // the descriptor only depends on the class, built once and shared by all entity instances
+        val componentDescriptor = ComponentDescriptor.descriptorFor(clz, serializer)
+        val skipUnchangedUpdates =
+          Option.when(sdkSettings.skipUnchangedKeyValueUpdates(componentId)) {
+            val counters = new KeyValueEntityCounters
+            ManagementBeans.register("KeyValueEntity", componentId, counters)
+            counters
+          }
+
         val instanceFactory: SpiEventSourcedEntity.FactoryContext => SpiEventSourcedEntity = { factoryContext =>
           new KeyValueEntityImpl[AnyRef, KeyValueEntity[AnyRef]](
             sdkSettings,
@@ -541,9 +570,10 @@ private final class Sdk(
             componentId,
             factoryContext.entityId,
             serializer,
-            ComponentDescriptor.descriptorFor(clz, serializer),
+            componentDescriptor,
             entityStateType,
             regionInfo,
+            skipUnchangedUpdates,
             context =>
               wiredInstance(clz.asInstanceOf[Class[KeyValueEntity[AnyRef]]]) {
                 // remember to update component type API doc and docs if changing the set of injectables
@@ -569,12 +599,23 @@ private final class Sdk(
               method.getName
           }.toSet
 
+        // the descriptor only depends on the class, built once and shared by all workflow instances
+        val componentDescriptor = ComponentDescriptor.descriptorFor(clz, serializer)
+        val definitionCache = new WorkflowDefinitionCache(serializer)
+        val userCodeExecutor = componentExecutors.userCodeExecutor(ComponentExecutors.WorkflowCategory, componentId)
+
         workflowDescriptors :+=
           new WorkflowDescriptor(
             componentId,
             clz.getName,
             readOnlyCommandNames,
-            ctx => workflowInstanceFactory(ctx, clz.asInstanceOf[Class[Workflow[Nothing]]]))
+            ctx =>
+              workflowInstanceFactory(
+                ctx,
+                clz.asInstanceOf[Class[Workflow[Nothing]]],
+                componentDescriptor,
+                definitionCache,
+                userCodeExecutor))
 
       case clz if classOf[TimedAction].isAssignableFrom(clz) =>
         val componentId = clz.getAnnotation(classOf[ComponentId]).value
@@ -590,7 +631,8 @@ private final class Sdk(
             sdkTracerFactory,
             serializer,
             regionInfo,
-            ComponentDescriptor.descriptorFor(timedActionClass, serializer))
+            ComponentDescriptor.descriptorFor(timedActionClass, serializer),
+            componentExecutors.userCodeExecutor(ComponentExecutors.TimedActionCategory, componentId))
         timedActionDescriptors :+=
           new TimedActionDescriptor(componentId, clz.getName, timedActionSpi)
 
@@ -613,12 +655,16 @@ private final class Sdk(
             serializer,
             ComponentDescriptorFactory.findIgnore(consumerClass),
             ComponentDescriptor.descriptorFor(consumerClass, serializer),
-            regionInfo)
+            regionInfo,
+            stateless = consumerClass.hasAnnotation[Stateless] || sdkSettings.statelessConsumers(componentId),
+            componentExecutors.userCodeExecutor(ComponentExecutors.ConsumerCategory, componentId))
         consumerDescriptors :+=
           new ConsumerDescriptor(componentId, clz.getName, consumerSrc, consumerDestination(consumerClass), consumerSpi)
 
       case clz if classOf[View].isAssignableFrom(clz) =>
-        viewDescriptors :+= ViewDescriptorFactory(clz, serializer, regionInfo, sdkExecutionContext)
+        val componentId = ComponentDescriptorFactory.readComponentIdValue(clz)
+        viewDescriptors :+=
+          ViewDescriptorFactory(clz, serializer, regionInfo, componentExecutors.viewExecutionContext(componentId))
 
       case clz if Reflect.isRestEndpoint(clz) =>
       // handled separately because ComponentId is not mandatory
@@ -874,8 +920,18 @@ private final class Sdk(
     }
   }
 
+  // shared by all component clients, only used for queries declaring a cache ttl
+  private lazy val viewQueryCache =
+    Option.when(sdkSettings.viewQueryCacheMaxEntries > 0) {
+      val cache = new ViewQueryCache(sdkSettings.viewQueryCacheMaxEntries)
+      ManagementBeans.register("ViewQueryCache", "component-client", cache)
+      cache
+    }
+
   private def componentClient(openTelemetrySpan: Option[Span]): ComponentClient = {
-    ComponentClientImpl(runtimeComponentClients, serializer, openTelemetrySpan)(sdkExecutionContext, system)
+    ComponentClientImpl(runtimeComponentClients, serializer, openTelemetrySpan, viewQueryCache)(
+      sdkExecutionContext,
+      system)
   }
 
   private def timerScheduler(openTelemetrySpan: Option[Span]): TimerScheduler = {
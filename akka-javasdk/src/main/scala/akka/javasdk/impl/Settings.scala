@@ -4,9 +4,13 @@
 
 package akka.javasdk.impl
 
+import scala.jdk.CollectionConverters._
+
 import akka.annotation.InternalApi
+import akka.javasdk.impl.eventsourcedentity.ReplayCostThresholds
 import Settings.DevModeSettings
 import com.typesafe.config.Config
+import com.typesafe.config.ConfigUtil
 
 /**
  * INTERNAL API
@@ -15,10 +19,34 @@ import com.typesafe.config.Config
 private[impl] object Settings {
 
   def apply(sdkConfig: Config): Settings = {
-    Settings(devModeSettings = Option.when(sdkConfig.getBoolean("dev-mode.enabled"))(
-      DevModeSettings(
-        serviceName = sdkConfig.getString("dev-mode.service-name"),
-        httpPort = sdkConfig.getInt("dev-mode.http-port"))))
+    Settings(
+      devModeSettings = Option.when(sdkConfig.getBoolean("dev-mode.enabled"))(
+        DevModeSettings(
+          serviceName = sdkConfig.getString("dev-mode.service-name"),
+          httpPort = sdkConfig.getInt("dev-mode.http-port"))),
+      binaryInternalEncoding = sdkConfig.getString("serialization.internal-encoding") match {
+        case "json" => false
+        case "cbor" => true
+        case other =>
+          throw new IllegalArgumentException(
+            s"Unknown akka.javasdk.serialization.internal-encoding [$other], supported values are [json, cbor]")
+      },
+      useGeneratedCodecs = sdkConfig.getBoolean("serialization.generated-codecs"),
+      statelessConsumers = sdkConfig.getStringList("consumer.stateless-components").asScala.toSet,
+      viewQueryCacheMaxEntries = sdkConfig.getInt("view.query-cache.max-entries"),
+      virtualThreads = sdkConfig.getBoolean("executors.virtual-threads"),
+      executorPoolSizes = poolSizes(sdkConfig, "executors.pool-size"),
+      componentExecutorPoolSizes = poolSizes(sdkConfig, "executors.component-pool-size"),
+      replayCostThresholds =
+        ReplayCostThresholds.fromConfig(sdkConfig.getConfig("event-sourced-entity.replay-cost-warning")),
+      skipUnchangedKeyValueUpdatesForAll = sdkConfig.getBoolean("key-value-entity.skip-unchanged-updates"),
+      skipUnchangedKeyValueUpdatesComponents =
+        sdkConfig.getStringList("key-value-entity.skip-unchanged-updates-components").asScala.toSet)
+  }
+
+  private def poolSizes(sdkConfig: Config, path: String): Map[String, Int] = {
+    val sizes = sdkConfig.getConfig(path)
+    sizes.root.keySet.asScala.map(key => key -> sizes.getInt(ConfigUtil.quoteString(key))).toMap
   }
 
   final case class DevModeSettings(serviceName: String, httpPort: Int)
@@ -28,4 +56,19 @@ private[impl] object Settings {
  * INTERNAL API
  */
 @InternalApi
-private[impl] final case class Settings(devModeSettings: Option[DevModeSettings])
+private[impl] final case class Settings(
+    devModeSettings: Option[DevModeSettings],
+    binaryInternalEncoding: Boolean,
+    useGeneratedCodecs: Boolean,
+    statelessConsumers: Set[String],
+    viewQueryCacheMaxEntries: Int,
+    virtualThreads: Boolean,
+    executorPoolSizes: Map[String, Int],
+    componentExecutorPoolSizes: Map[String, Int],
+    replayCostThresholds: Map[String, ReplayCostThresholds],
+    skipUnchangedKeyValueUpdatesForAll: Boolean,
+    skipUnchangedKeyValueUpdatesComponents: Set[String]) {
+
+  def skipUnchangedKeyValueUpdates(componentId: String): Boolean =
+    skipUnchangedKeyValueUpdatesForAll || skipUnchangedKeyValueUpdatesComponents(componentId)
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl
+
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+
+import akka.annotation.InternalApi
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[javasdk] object UserCodeExecutor {
+
+  /**
+   * Handlers run on the thread the runtime calls the component with, step calls on the given execution context.
+   */
+  def callingThread(executionContext: ExecutionContext): UserCodeExecutor =
+    new UserCodeExecutor(executionContext, dispatch = false, ownedExecutor = None)
+
+  /**
+   * Handlers and step calls each run on a new virtual thread, so that user code blocking on, for example, a component
+   * client `invoke()` parks the virtual thread rather than holding on to a thread of a shared pool.
+   */
+  def virtualThreads(): UserCodeExecutor = {
+    val executor = Executors.newVirtualThreadPerTaskExecutor()
+    new UserCodeExecutor(ExecutionContext.fromExecutor(executor), dispatch = true, ownedExecutor = Some(executor))
+  }
+
+  /**
+   * Handlers and step calls run on the given execution context, like a dedicated pool of a kind of component.
+   */
+  def dispatched(executionContext: ExecutionContext): UserCodeExecutor =
+    new UserCodeExecutor(executionContext, dispatch = true, ownedExecutor = None)
+}
+
+/**
+ * INTERNAL API
+ *
+ * Where user code that may block runs: command and message handlers of timed actions and consumers, and calls of
+ * workflow steps.
+ */
+@InternalApi
+private[javasdk] final class UserCodeExecutor private (
+    val executionContext: ExecutionContext,
+    dispatch: Boolean,
+    ownedExecutor: Option[ExecutorService]) {
+
+  /**
+   * Run a handler, the returned future completes with the future returned by the handler.
+   */
+  def run[T](handler: => Future[T]): Future[T] =
+    if (dispatch) Future(handler)(executionContext).flatten
+    else handler
+
+  /**
+   * Stop the executor if it was created for this, handlers already started still complete.
+   */
+  def shutdown(): Unit =
+    ownedExecutor.foreach(_.shutdown())
+}
@@ -16,6 +16,7 @@ import akka.javasdk.annotations.Consume.FromKeyValueEntity
 import akka.javasdk.annotations.Consume.FromWorkflow
 import akka.javasdk.annotations.Produce.ServiceStream
 import akka.javasdk.annotations.Query
+import akka.javasdk.annotations.Stateless
 import akka.javasdk.annotations.Table
 import akka.javasdk.consumer.Consumer
 import akka.javasdk.eventsourcedentity.EventSourcedEntity
@@ -238,6 +239,7 @@ private[javasdk] object Validations {
       viewMustHaveAtLeastOneQueryMethod(component) ++
       validateQueryResultTypes(component) ++
       viewQueriesWithStreamUpdatesMustBeStreaming(component) ++
+      viewCachedQueriesMustNotBeStreaming(component) ++
       commandHandlerArityShouldBeZeroOrOne(component, hasQueryEffectOutput) ++
       viewMultipleTableUpdatersMustHaveTableAnnotations(tableUpdaters) ++
       tableUpdaters
@@ -274,9 +276,18 @@ private[javasdk] object Validations {
       Validation(errorMessage(tableUpdater, "A TableUpdater subclass must be annotated with `@Consume` annotation."))
     } ++
     validateViewUpdaterRowType(tableUpdater) ++
+    tableUpdaterMustNotBeStateless(tableUpdater) ++
     commonSubscriptionValidation(tableUpdater, hasUpdateEffectOutput)
   }
 
+  private def tableUpdaterMustNotBeStateless(tableUpdater: Class[_]): Validation =
+    when(tableUpdater.isAnnotationPresent(classOf[Stateless])) {
+      Validation(
+        errorMessage(
+          tableUpdater,
+          "A TableUpdater can't be annotated with @Stateless, annotate it with @Reusable to reuse its instances."))
+    }
+
   private val primitiveWrapperClasses: Set[Class[AnyRef]] = Set(
     classOf[java.lang.Integer].asInstanceOf[Class[AnyRef]],
     classOf[java.lang.Long].asInstanceOf[Class[AnyRef]],
@@ -346,6 +357,19 @@ private[javasdk] object Validations {
           s"Query methods marked with streamUpdates must return View.QueryStreamEffect<RowType>")))
   }
 
+  private def viewCachedQueriesMustNotBeStreaming(component: Class[_]): Validation = {
+    component.getMethods.toIndexedSeq.foldLeft(Valid: Validation) { (validation, method) =>
+      val annotation = method.getAnnotation(classOf[Query])
+      if (annotation == null || annotation.cacheTtlMillis() == 0) validation
+      else if (annotation.cacheTtlMillis() < 0)
+        validation ++ Validation(errorMessage(method, "Query cacheTtlMillis must not be negative."))
+      else if (method.getReturnType != classOf[View.QueryEffect[_]])
+        validation ++ Validation(
+          errorMessage(method, "Only query methods returning View.QueryEffect<RowType> can declare cacheTtlMillis."))
+      else validation
+    }
+  }
+
   private def viewMultipleTableUpdatersMustHaveTableAnnotations(tableUpdaters: Seq[Class[_]]): Validation =
     if (tableUpdaters.size > 1) {
       tableUpdaters.find(_.getAnnotation(classOf[Table]) eq null) match {
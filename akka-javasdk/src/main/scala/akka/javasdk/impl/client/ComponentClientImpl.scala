@@ -29,7 +29,8 @@ import io.opentelemetry.api.trace.Span
 private[javasdk] final case class ComponentClientImpl(
     runtimeComponentClients: RuntimeComponentClients,
     serializer: JsonSerializer,
-    openTelemetrySpan: Option[Span])(implicit ec: ExecutionContext, system: ActorSystem[_])
+    openTelemetrySpan: Option[Span],
+    viewQueryCache: Option[ViewQueryCache] = None)(implicit ec: ExecutionContext, system: ActorSystem[_])
     extends ComponentClient {
 
   // Volatile since the component client could be accessed in nested/composed futures and is mutated by the reflective action router
@@ -66,6 +67,7 @@ private[javasdk] final case class ComponentClientImpl(
     else if (workflowId.isEmpty) throw new IllegalArgumentException("Empty workflow id now allowed")
     else WorkflowClientImpl(runtimeComponentClients.workFlowClient, serializer, callMetadata, workflowId)
 
-  override def forView(): ViewClient = ViewClientImpl(runtimeComponentClients.viewClient, serializer, callMetadata)
+  override def forView(): ViewClient =
+    ViewClientImpl(runtimeComponentClients.viewClient, serializer, callMetadata, viewQueryCache)
 
 }
@@ -12,12 +12,16 @@ import akka.javasdk.client.ComponentDeferredMethodRef1
 import akka.javasdk.client.ComponentMethodRef
 import akka.javasdk.client.ComponentMethodRef1
 import akka.javasdk.client.EventSourcedEntityClient
+import akka.javasdk.client.EventSourcedEntityCommandBatch
 import akka.javasdk.client.KeyValueEntityClient
 import akka.javasdk.client.TimedActionClient
 import akka.javasdk.client.WorkflowClient
 import akka.javasdk.eventsourcedentity.EventSourcedEntity
 import akka.javasdk.impl.ComponentDescriptorFactory
+import akka.javasdk.impl.ErrorHandling
 import akka.javasdk.impl.MetadataImpl
+import akka.javasdk.impl.eventsourcedentity.CommandBatch
+import akka.javasdk.impl.eventsourcedentity.CommandBatch.BatchedCommand
 import akka.javasdk.impl.reflection.Reflect
 import akka.javasdk.keyvalueentity.KeyValueEntity
 import akka.javasdk.timedaction.TimedAction
@@ -32,14 +36,47 @@ import akka.runtime.sdk.spi.WorkflowType
 import akka.runtime.sdk.spi.{ TimedActionClient => RuntimeTimedActionClient }
 import akka.runtime.sdk.spi.{ EntityClient => RuntimeEntityClient }
 import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.Promise
 import scala.jdk.FutureConverters.FutureOps
 import scala.util.Failure
 import scala.util.Success
 import scala.util.Try
 
+import akka.Done
 import akka.actor.typed.ActorSystem
 import akka.javasdk.impl.serialization.JsonSerializer
 import akka.runtime.sdk.spi.BytesPayload
+import java.lang.reflect.Method
+import java.lang.reflect.Type
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.ExecutionException
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[impl] object EntityClientImpl {
+
+  /**
+   * Everything about a component method call that only depends on the method reference, resolved once per lambda class.
+   */
+  final class ComponentMethodProperties(val method: Method) {
+    val declaringClass: Class[_] = method.getDeclaringClass
+    val methodName: String = method.getName.capitalize
+    // lazy so that the component type validation of the caller runs first
+    lazy val componentId: String = ComponentDescriptorFactory.readComponentIdValue(declaringClass)
+    // lazy since only valid for effects with a reply type
+    lazy val returnType: Type = Reflect.getReturnType(declaringClass, method)
+  }
+
+  private val componentMethodProperties =
+    new MethodRefCache[ComponentMethodProperties](MethodRefResolver.MaxCachedMethodRefs)
+
+  def resolveComponentMethodProperties(lambda: AnyRef): ComponentMethodProperties =
+    componentMethodProperties.getOrCompute(lambda)(
+      new ComponentMethodProperties(MethodRefResolver.resolveMethodRef(lambda)))
+}
 
 /**
  * INTERNAL API
@@ -62,14 +99,14 @@ private[impl] sealed abstract class EntityClientImpl(
 
   private def createMethodRefForEitherArity[A1, R](lambda: AnyRef): ComponentMethodRefImpl[A1, R] = {
     import MetadataImpl.toSpi
-    val method = MethodRefResolver.resolveMethodRef(lambda)
-    val declaringClass = method.getDeclaringClass
+    val properties = EntityClientImpl.resolveComponentMethodProperties(lambda)
+    val declaringClass = properties.declaringClass
     if (!expectedComponentSuperclass.isAssignableFrom(declaringClass)) {
       throw new IllegalArgumentException(s"$declaringClass is not a subclass of $expectedComponentSuperclass")
     }
-    val componentId = ComponentDescriptorFactory.readComponentIdValue(declaringClass)
-    val methodName = method.getName.capitalize
-    val returnType = Reflect.getReturnType(declaringClass, method)
+    val componentId = properties.componentId
+    val methodName = properties.methodName
+    val returnType = properties.returnType
 
     // FIXME push some of this logic into the NativeComponentMethodRef
     //       will be easier to follow to do that instead of creating a lambda here and injecting into that
@@ -80,8 +117,8 @@ private[impl] sealed abstract class EntityClientImpl(
         // Note: same path for 0 and 1 arg calls
         val serializedPayload = maybeArg match {
           case Some(arg) =>
-            // Note: not Kalix JSON encoded here, regular/normal utf8 bytes
-            serializer.toBytes(arg)
+            // Note: JSON, or CBOR when binary encoding is enabled, only ever decoded by the SDK of the callee
+            serializer.toInternalBytes(arg)
           case None =>
             BytesPayload.empty
         }
@@ -97,7 +134,7 @@ private[impl] sealed abstract class EntityClientImpl(
               entityClient
                 .send(new EntityRequest(componentId, entityId, methodName, serializedPayload, toSpi(metadata)))
                 .map { reply =>
-                  // Note: not Kalix JSON encoded here, regular/normal utf8 bytes
+                  // Note: JSON or CBOR, decoded according to the content type of the reply
                   serializer.fromBytes[R](returnType, reply.payload)
                 }
             }
@@ -168,6 +205,91 @@ private[javasdk] final case class EventSourcedEntityClientImpl(
   override def method[T, A1, R](
       methodRef: function.Function2[T, A1, EventSourcedEntity.Effect[R]]): ComponentMethodRef1[A1, R] =
     createMethodRef2(methodRef)
+
+  override def batch(): EventSourcedEntityCommandBatch =
+    new EventSourcedEntityCommandBatchImpl(entityClient, serializer, callMetadata, entityId)
+}
+
+/**
+ * INTERNAL API
+ *
+ * Not thread safe, like the builders of the other component calls it is used by the caller adding the commands.
+ */
+@InternalApi
+private[javasdk] final class EventSourcedEntityCommandBatchImpl(
+    entityClient: RuntimeEntityClient,
+    serializer: JsonSerializer,
+    callMetadata: Option[Metadata],
+    entityId: String)(implicit executionContext: ExecutionContext)
+    extends EventSourcedEntityCommandBatch {
+
+  private final class BatchEntry(val command: BatchedCommand, val returnType: Type, val reply: Promise[Any])
+
+  private var componentId: String = null
+  private var metadata: Option[Metadata] = callMetadata
+  private val entries = Vector.newBuilder[BatchEntry]
+
+  override def add[T, R](methodRef: function.Function[T, EventSourcedEntity.Effect[R]]): CompletionStage[R] =
+    addEntry(methodRef, BytesPayload.empty)
+
+  override def add[T, A1, R](
+      methodRef: function.Function2[T, A1, EventSourcedEntity.Effect[R]],
+      arg: A1): CompletionStage[R] =
+    addEntry(methodRef, serializer.toInternalBytes(arg))
+
+  private def addEntry[R](lambda: AnyRef, payload: BytesPayload): CompletionStage[R] = {
+    val properties = EntityClientImpl.resolveComponentMethodProperties(lambda)
+    if (!classOf[EventSourcedEntity[_, _]].isAssignableFrom(properties.declaringClass))
+      throw new IllegalArgumentException(
+        s"${properties.declaringClass} is not a subclass of ${classOf[EventSourcedEntity[_, _]]}")
+    if (componentId eq null) componentId = properties.componentId
+    else if (componentId != properties.componentId)
+      throw new IllegalArgumentException(
+        s"All commands of a batch must be for the same entity, [${properties.componentId}] added to a batch for " +
+        s"[$componentId]")
+
+    val reply = Promise[Any]()
+    entries += new BatchEntry(BatchedCommand(properties.methodName, payload), properties.returnType, reply)
+    reply.future.asJava.asInstanceOf[CompletionStage[R]]
+  }
+
+  override def withMetadata(metadata: Metadata): EventSourcedEntityCommandBatch = {
+    this.metadata = Some(metadata)
+    this
+  }
+
+  override def invokeAsync(): CompletionStage[Done] = {
+    val batch = entries.result()
+    if (batch.isEmpty) Future.successful(Done).asJava
+    else {
+      val payload = CommandBatch.encodeCommands(batch.map(_.command))
+      entityClient
+        .send(
+          new EntityRequest(componentId, entityId, CommandBatch.CommandName, payload, MetadataImpl.toSpi(metadata)))
+        .transform {
+          case Success(response) =>
+            CommandBatch.decodeReplies(response.payload).zip(batch).foreach {
+              case (Left(description), entry) =>
+                entry.reply.tryFailure(new IllegalArgumentException(description))
+              case (Right(replyPayload), entry) =>
+                entry.reply.tryComplete(Try(serializer.fromBytes[Any](entry.returnType, replyPayload)))
+            }
+            batch.foreach(_.reply.tryFailure(new IllegalStateException("No reply for command in batch")))
+            Success(Done)
+          case Failure(exception) =>
+            batch.foreach(_.reply.tryFailure(exception))
+            Failure(exception)
+        }
+        .asJava
+    }
+  }
+
+  override def invoke(): Unit =
+    try {
+      invokeAsync().toCompletableFuture.get()
+    } catch {
+      case ex: ExecutionException => throw ErrorHandling.unwrapExecutionException(ex)
+    }
 }
 
 /**
@@ -207,14 +329,14 @@ private[javasdk] final case class TimedActionClientImpl(
 
   private def createMethodRefForEitherArity[A1, R](lambda: AnyRef): ComponentMethodRefImpl[A1, R] = {
     import MetadataImpl.toSpi
-    val method = MethodRefResolver.resolveMethodRef(lambda)
-    val declaringClass = method.getDeclaringClass
+    val properties = EntityClientImpl.resolveComponentMethodProperties(lambda)
+    val declaringClass = properties.declaringClass
     if (!Reflect.isAction(declaringClass))
       throw new IllegalArgumentException(
         "Use dedicated builder for calling " + declaringClass.getSuperclass.getSimpleName
-        + " component method " + declaringClass.getSimpleName + "::" + method.getName + ". This builder is meant for Action component calls.")
-    val componentId = ComponentDescriptorFactory.readComponentIdValue(declaringClass)
-    val methodName = method.getName.capitalize
+        + " component method " + declaringClass.getSimpleName + "::" + properties.method.getName + ". This builder is meant for Action component calls.")
+    val componentId = properties.componentId
+    val methodName = properties.methodName
 
     new ComponentMethodRefImpl[AnyRef, R](
       None,
@@ -223,8 +345,8 @@ private[javasdk] final case class TimedActionClientImpl(
         // Note: same path for 0 and 1 arg calls
         val serializedPayload = maybeArg match {
           case Some(arg) =>
-            // Note: not Kalix JSON encoded here, regular/normal utf8 bytes
-            serializer.toBytes(arg)
+            // Note: JSON, or CBOR when binary encoding is enabled, only ever decoded by the SDK of the callee
+            serializer.toInternalBytes(arg)
           case None =>
             BytesPayload.empty
         }
@@ -241,8 +363,8 @@ private[javasdk] final case class TimedActionClientImpl(
               .call(new TimedActionRequest(componentId, methodName, serializedPayload, toSpi(metadata)))
               .transform {
                 case Success(reply) =>
-                  // Note: not Kalix JSON encoded here, regular/normal utf8 bytes
-                  val returnType = Reflect.getReturnType(declaringClass, method)
+                  // Note: JSON or CBOR, decoded according to the content type of the reply
+                  val returnType = properties.returnType
                   if (reply.payload.isEmpty) Success(null.asInstanceOf[R])
                   else Try(serializer.fromBytes[R](returnType, reply.payload))
                 case Failure(ex) => Failure(ex)
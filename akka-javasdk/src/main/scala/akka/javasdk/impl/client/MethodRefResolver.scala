@@ -6,13 +6,44 @@ package akka.javasdk.impl.client
 
 import java.lang.invoke.SerializedLambda
 import java.lang.reflect.Method
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * INTERNAL API
+ *
+ * Bounded cache of values derived from a method reference, keyed by the class of the lambda. The JVM generates one
+ * class per method reference call site, so the class is a stable key for the referenced method, and the number of
+ * entries is naturally limited by the number of call sites. The bound only protects against pathological cases, once
+ * reached new entries are computed but not cached.
+ */
+private[impl] final class MethodRefCache[T](maxEntries: Int) {
+  private val cache = new ConcurrentHashMap[Class[_], T]()
+
+  def getOrCompute(lambda: AnyRef)(compute: => T): T = {
+    val lambdaClass = lambda.getClass
+    val cached = cache.get(lambdaClass)
+    if (cached != null) cached
+    else {
+      val computed = compute
+      if (cache.size < maxEntries) cache.putIfAbsent(lambdaClass, computed)
+      computed
+    }
+  }
+}
 
 private[impl] object MethodRefResolver {
 
+  val MaxCachedMethodRefs = 10000
+
+  private val resolvedMethods = new MethodRefCache[Method](MaxCachedMethodRefs)
+
   /**
-   * Resolve the method ref for a lambda.
+   * Resolve the method ref for a lambda. Resolved methods are cached per lambda class.
    */
-  def resolveMethodRef(lambda: Any): Method = {
+  def resolveMethodRef(lambda: Any): Method =
+    resolvedMethods.getOrCompute(lambda.asInstanceOf[AnyRef])(resolveMethodRefUncached(lambda))
+
+  private def resolveMethodRefUncached(lambda: Any): Method = {
     val lambdaType = lambda.getClass
 
     if (!classOf[java.io.Serializable].isInstance(lambda)) {
@@ -7,6 +7,7 @@ package akka.javasdk.impl.client
 import akka.annotation.InternalApi
 import akka.japi.function
 import akka.javasdk.Metadata
+import akka.javasdk.annotations.Query
 import akka.javasdk.client.ComponentInvokeOnlyMethodRef
 import akka.javasdk.client.ComponentInvokeOnlyMethodRef1
 import akka.javasdk.client.ComponentStreamMethodRef
@@ -28,8 +29,10 @@ import scala.jdk.FutureConverters.FutureOps
 import akka.javasdk.impl.serialization.JsonSerializer
 import akka.runtime.sdk.spi.BytesPayload
 import akka.runtime.sdk.spi.SpiMetadata
+import com.fasterxml.jackson.core.io.SerializedString
 import java.lang.reflect.Type
 import java.util.Optional
+import java.util.concurrent.TimeUnit
 
 import scala.concurrent.Future
 
@@ -53,6 +56,8 @@ private[javasdk] object ViewClientImpl {
     classOf[java.lang.Float],
     classOf[java.lang.Double])
 
+  private val QueryParameterContentType = JsonSerializer.JsonContentTypePrefix + "object"
+
   /**
    * @param queryReturnType
    *   Un-nested return type, so would be T1 for `QueryEffect[Optional[T1]]` or T2 for `QueryEffect[T2]`
@@ -63,9 +68,17 @@ private[javasdk] object ViewClientImpl {
       methodName: String,
       declaringClass: Class[_],
       queryReturnType: Type,
-      returnTypeOptional: Boolean)
+      returnTypeOptional: Boolean,
+      cacheTtlNanos: Long,
+      queryParameterName: Option[SerializedString])
+
+  private val viewMethodProperties = new MethodRefCache[ViewMethodProperties](MethodRefResolver.MaxCachedMethodRefs)
 
-  private def validateAndExtractViewMethodProperties[R](lambda: AnyRef): ViewMethodProperties = {
+  // validation failures are thrown from the computation and therefore never cached
+  private def validateAndExtractViewMethodProperties[R](lambda: AnyRef): ViewMethodProperties =
+    viewMethodProperties.getOrCompute(lambda)(extractViewMethodProperties(lambda))
+
+  private def extractViewMethodProperties(lambda: AnyRef): ViewMethodProperties = {
     val method = MethodRefResolver.resolveMethodRef(lambda)
     ViewCallValidator.validate(method)
     // extract view id
@@ -81,7 +94,21 @@ private[javasdk] object ViewClientImpl {
       case _: ParameterizedType if classOf[java.util.Optional[_]].isAssignableFrom(queryReturnClass) => true
       case _                                                                                         => false
     }
-    ViewMethodProperties(componentId, method, methodName, declaringClass, queryReturnType, returnTypeOptional)
+    val cacheTtlNanos = Option(method.getAnnotation(classOf[Query])) match {
+      case Some(query) => TimeUnit.MILLISECONDS.toNanos(query.cacheTtlMillis())
+      case None        => 0L
+    }
+    // field name of primitive and collection query parameters, encoded once rather than on every call
+    val queryParameterName = method.getParameters.headOption.map(parameter => new SerializedString(parameter.getName))
+    ViewMethodProperties(
+      componentId,
+      method,
+      methodName,
+      declaringClass,
+      queryReturnType,
+      returnTypeOptional,
+      cacheTtlNanos,
+      queryParameterName)
   }
 
   private def getViewQueryReturnType(method: Method): Type = {
@@ -103,7 +130,8 @@ private[javasdk] object ViewClientImpl {
 private[javasdk] final case class ViewClientImpl(
     viewClient: RuntimeViewClient,
     serializer: JsonSerializer,
-    callMetadata: Option[Metadata])(implicit val executionContext: ExecutionContext, system: ActorSystem[_])
+    callMetadata: Option[Metadata],
+    queryCache: Option[ViewQueryCache])(implicit val executionContext: ExecutionContext, system: ActorSystem[_])
     extends ViewClient {
   import ViewClientImpl._
 
@@ -114,17 +142,13 @@ private[javasdk] final case class ViewClientImpl(
       methodRef: function.Function2[T, A1, View.QueryEffect[R]]): ComponentInvokeOnlyMethodRef1[A1, R] =
     createMethodRefForEitherArity(methodRef)
 
-  private def encodeArgument(method: Method, arg: Option[Any]): BytesPayload = arg match {
+  private def encodeArgument(properties: ViewMethodProperties, arg: Option[Any]): BytesPayload = arg match {
     case Some(arg) =>
       // Note: not Kalix JSON encoded here, regular/normal utf8 bytes
-      if (arg.getClass.isPrimitive || primitiveObjects.contains(arg.getClass)) {
-        val bytes = serializer.encodeDynamicToAkkaByteString(method.getParameters.head.getName, arg)
-        new BytesPayload(bytes, JsonSerializer.JsonContentTypePrefix + "object")
-      } else if (classOf[java.util.Collection[_]].isAssignableFrom(arg.getClass)) {
-        val bytes = serializer.encodeDynamicCollectionToAkkaByteString(
-          method.getParameters.head.getName,
-          arg.asInstanceOf[java.util.Collection[_]])
-        new BytesPayload(bytes, JsonSerializer.JsonContentTypePrefix + "object")
+      if (arg.getClass.isPrimitive || primitiveObjects.contains(arg.getClass) ||
+        classOf[java.util.Collection[_]].isAssignableFrom(arg.getClass)) {
+        val bytes = serializer.encodeQueryParameter(properties.queryParameterName.get, arg)
+        new BytesPayload(bytes, QueryParameterContentType)
       } else {
         serializer.toBytes(arg)
       }
@@ -141,9 +165,21 @@ private[javasdk] final case class ViewClientImpl(
       callMetadata,
       { (maybeMetadata, maybeRetrySettings, maybeArg) =>
         // Note: same path for 0 and 1 arg calls
-        val serializedPayload = encodeArgument(viewMethodProperties.method, maybeArg)
+        val serializedPayload = encodeArgument(viewMethodProperties, maybeArg)
+
+        def callView(metadata: Metadata): Future[R] =
+          queryCache match {
+            case Some(cache) if viewMethodProperties.cacheTtlNanos > 0 =>
+              cache.getOrQuery(
+                viewMethodProperties.componentId,
+                viewMethodProperties.methodName,
+                serializedPayload.contentType,
+                serializedPayload.bytes,
+                viewMethodProperties.cacheTtlNanos)(queryView(metadata))
+            case _ => queryView(metadata)
+          }
 
-        def callView(metadata: Metadata): Future[R] = {
+        def queryView(metadata: Metadata): Future[R] = {
           viewClient
             .query(
               new ViewRequest(
@@ -196,7 +232,7 @@ private[javasdk] final case class ViewClientImpl(
           new ViewRequest(
             viewMethodProperties.componentId,
             viewMethodProperties.methodName,
-            encodeArgument(viewMethodProperties.method, None),
+            encodeArgument(viewMethodProperties, None),
             SpiMetadata.empty))
         .map { viewResult =>
           // Note: not Kalix JSON encoded here, regular/normal utf8 bytes
@@ -215,7 +251,7 @@ private[javasdk] final case class ViewClientImpl(
           new ViewRequest(
             viewMethodProperties.componentId,
             viewMethodProperties.methodName,
-            encodeArgument(viewMethodProperties.method, Some(arg)),
+            encodeArgument(viewMethodProperties, Some(arg)),
             SpiMetadata.empty))
         .map { viewResult =>
           // Note: not Kalix JSON encoded here, regular/normal utf8 bytes
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.client
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.LongAdder
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.util.Failure
+
+import akka.annotation.InternalApi
+import akka.util.ByteString
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[javasdk] object ViewQueryCache {
+
+  private final case class Key(componentId: String, methodName: String, contentType: String, argument: ByteString)
+
+  private final class Entry(val result: Future[Any], val expiresAtNanos: Long) {
+    def isExpired(nowNanos: Long): Boolean = expiresAtNanos - nowNanos <= 0
+  }
+
+  // when full, this many entries are sampled, in map order, to find expired ones or else the one to evict
+  private val MaxEntriesScannedForExpired = 16
+
+  final case class Statistics(hits: Long, misses: Long, evictions: Long, size: Int)
+
+  /**
+   * Registered as `akka.javasdk:type=ViewQueryCache,name=component-client` with the platform MBean server.
+   */
+  trait ViewQueryCacheMXBean {
+    def getHits: Long
+    def getMisses: Long
+    def getEvictions: Long
+    def getSize: Int
+  }
+}
+
+/**
+ * INTERNAL API
+ *
+ * Results of view queries declaring a `cacheTtlMillis`, shared by all view clients of the service. Keyed by view,
+ * query and serialized query argument, kept until the time to live has passed or they are evicted to stay within
+ * `maxEntries`. Eviction is approximate: a small sample of the entries is looked at, expired ones in it are dropped
+ * and otherwise the one of the sample closest to expiry, which is not necessarily the closest of the whole cache.
+ * Failed queries are not kept. The cached result objects are handed to every caller of the same query,
+ * so they must not be mutated.
+ */
+@InternalApi
+private[javasdk] final class ViewQueryCache(maxEntries: Int) extends ViewQueryCache.ViewQueryCacheMXBean {
+  import ViewQueryCache._
+
+  private val entries = new ConcurrentHashMap[Key, Entry]()
+  private val hitCount = new LongAdder
+  private val missCount = new LongAdder
+  private val evictionCount = new LongAdder
+
+  def getOrQuery[R](
+      componentId: String,
+      methodName: String,
+      contentType: String,
+      argument: ByteString,
+      ttlNanos: Long)(query: => Future[R]): Future[R] = {
+    val key = Key(componentId, methodName, contentType, argument)
+    val now = System.nanoTime()
+    val existing = entries.get(key)
+    if (existing != null && !existing.isExpired(now)) {
+      hitCount.increment()
+      existing.result.asInstanceOf[Future[R]]
+    } else {
+      missCount.increment()
+      if (existing != null && entries.remove(key, existing)) evictionCount.increment()
+
+      val result = query
+      val entry = new Entry(result, now + ttlNanos)
+      makeRoom(now)
+      entries.put(key, entry)
+      result.onComplete {
+        case Failure(_) => entries.remove(key, entry) // query again on the next call
+        case _          =>
+      }(ExecutionContext.parasitic)
+      result
+    }
+  }
+
+  def statistics: Statistics =
+    Statistics(hitCount.sum(), missCount.sum(), evictionCount.sum(), entries.size)
+
+  override def getHits: Long = hitCount.sum()
+  override def getMisses: Long = missCount.sum()
+  override def getEvictions: Long = evictionCount.sum()
+  override def getSize: Int = entries.size
+
+  private def makeRoom(nowNanos: Long): Unit =
+    if (entries.size >= maxEntries) {
+      val iterator = entries.entrySet().iterator()
+      var scanned = 0
+      var oldestSeen: java.util.Map.Entry[Key, Entry] = null
+      while (entries.size >= maxEntries && iterator.hasNext && scanned < MaxEntriesScannedForExpired) {
+        val next = iterator.next()
+        if (next.getValue.isExpired(nowNanos)) {
+          if (entries.remove(next.getKey, next.getValue)) evictionCount.increment()
+        } else if (oldestSeen == null || next.getValue.expiresAtNanos - oldestSeen.getValue.expiresAtNanos < 0)
+          oldestSeen = next
+        scanned += 1
+      }
+      // no expired entries in the sample, drop the one of the sample closest to expiry
+      if (entries.size >= maxEntries && oldestSeen != null && entries.remove(oldestSeen.getKey, oldestSeen.getValue))
+        evictionCount.increment()
+    }
+}
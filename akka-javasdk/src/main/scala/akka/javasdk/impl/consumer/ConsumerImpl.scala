@@ -22,6 +22,7 @@ import akka.javasdk.impl.ComponentDescriptor
 import akka.javasdk.impl.ComponentType
 import akka.javasdk.impl.ErrorHandling
 import akka.javasdk.impl.MetadataImpl
+import akka.javasdk.impl.UserCodeExecutor
 import akka.javasdk.impl.consumer.ConsumerEffectImpl.AsyncEffect
 import akka.javasdk.impl.consumer.ConsumerEffectImpl.ConsumedEffect
 import akka.javasdk.impl.consumer.ConsumerEffectImpl.ProduceEffect
@@ -63,7 +64,9 @@ private[impl] final class ConsumerImpl[C <: Consumer](
     internalSerializer: JsonSerializer,
     ignoreUnknown: Boolean,
     componentDescriptor: ComponentDescriptor,
-    regionInfo: RegionInfo)
+    regionInfo: RegionInfo,
+    stateless: Boolean,
+    userCodeExecutor: UserCodeExecutor)
     extends SpiConsumer {
 
   private val log: Logger = LoggerFactory.getLogger(consumerClass)
@@ -72,21 +75,40 @@ private[impl] final class ConsumerImpl[C <: Consumer](
   implicit val system: ActorSystem = _system
   private val traceInstrumentation = new TraceInstrumentation(componentId, ConsumerCategory, tracerFactory)
 
+  private lazy val userSerializer = new JsonSerializer(JsonSupport.getObjectMapper)
+
   private val resultSerializer =
     // producing to topic, external json format, so mapper configurable by user
-    if (consumerDestination.exists(_.isInstanceOf[TopicDestination])) new JsonSerializer(JsonSupport.getObjectMapper)
+    if (consumerDestination.exists(_.isInstanceOf[TopicDestination])) userSerializer
     // non-topic is internal, so non-configurable (also means no output json is ever passed anywhere though)
     else internalSerializer
 
-  private def createRouter(): ReflectiveConsumerRouter[C] =
+  private val payloadSerializer =
+    // consuming from topic, external json format, so mapper configurable by user
+    if (consumerSource.isInstanceOf[TopicSource]) userSerializer
+    //  non-topic is internal, so non-configurable
+    else internalSerializer
+
+  private def createRouter(sharedInstance: Boolean): ReflectiveConsumerRouter[C] =
     new ReflectiveConsumerRouter[C](
       factory(),
       componentDescriptor.methodInvokers,
       internalSerializer,
+      payloadSerializer,
       ignoreUnknown,
-      consumesFromTopic = consumerSource.isInstanceOf[TopicSource])
+      sharedInstance)
+
+  // created on the first message rather than on startup, like the per message instances
+  private lazy val sharedRouter = createRouter(sharedInstance = true)
+
+  private def router(): ReflectiveConsumerRouter[C] =
+    if (stateless) sharedRouter
+    else createRouter(sharedInstance = false)
+
+  override def handleMessage(message: Message): Future[Effect] =
+    userCodeExecutor.run(handle(message))
 
-  override def handleMessage(message: Message): Future[Effect] = {
+  private def handle(message: Message): Future[Effect] = {
     val metadata = MetadataImpl.of(message.metadata)
 
     // FIXME would be good if we could record the chosen method in the span
@@ -108,7 +130,7 @@ private[impl] final class ConsumerImpl[C <: Consumer](
             message.originRegion.toJava)
 
         val payload: BytesPayload = message.payload.getOrElse(throw new IllegalArgumentException("No message payload"))
-        val effect = createRouter()
+        val effect = router()
           .handleCommand(MessageEnvelope.of(payload, messageContext.metadata), messageContext)
         toSpiEffect(message, effect)
       } catch {
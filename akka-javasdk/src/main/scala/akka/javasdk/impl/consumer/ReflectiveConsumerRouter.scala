@@ -6,7 +6,6 @@ package akka.javasdk.impl.consumer
 
 import java.util.Optional
 import akka.annotation.InternalApi
-import akka.javasdk.JsonSupport
 import akka.javasdk.consumer.Consumer
 import akka.javasdk.consumer.MessageContext
 import akka.javasdk.consumer.MessageEnvelope
@@ -19,34 +18,47 @@ import akka.runtime.sdk.spi.BytesPayload
 
 /**
  * INTERNAL API
+ *
+ * @param serializer
+ *   for decoding the message payloads, the user configurable one when consuming from a topic
+ * @param sharedInstance
+ *   the consumer instance is used for all messages, possibly concurrently, so the message context is only made
+ *   available to the handler on the calling thread
  */
 @InternalApi
 private[impl] class ReflectiveConsumerRouter[A <: Consumer](
     consumer: A,
     methodInvokers: Map[String, MethodInvoker],
     internalSerializer: JsonSerializer,
+    serializer: JsonSerializer,
     ignoreUnknown: Boolean,
-    consumesFromTopic: Boolean) {
+    sharedInstance: Boolean) {
 
-  private val serializer =
-    // consuming from topic, external json format, so mapper configurable by user
-    if (consumesFromTopic) new JsonSerializer(JsonSupport.getObjectMapper)
-    //  non-topic is internal, so non-configurable
-    else internalSerializer
+  if (sharedInstance) consumer._internalSetSharedInstance()
 
   def handleCommand(message: MessageEnvelope[BytesPayload], context: MessageContext): Consumer.Effect = {
-    // only set, never cleared, to allow access from other threads in async callbacks in the consumer
-    // the same handler and consumer instance is expected to only ever be invoked for a single message
-    consumer._internalSetMessageContext(Optional.of(context))
+    if (sharedInstance) {
+      Consumer._internalSetCurrentMessageContext(Optional.of(context))
+      try route(message)
+      finally Consumer._internalSetCurrentMessageContext(Optional.empty())
+    } else {
+      // only set, never cleared, to allow access from other threads in async callbacks in the consumer
+      // the same handler and consumer instance is expected to only ever be invoked for a single message
+      consumer._internalSetMessageContext(Optional.of(context))
 
+      // FIXME drop this because we don't really support field injection of the component client in the Akka SDK?
+      // lookup ComponentClient
+      val componentClients = Reflect.lookupComponentClientFields(consumer)
+      componentClients.foreach(_.callMetadata = Some(message.metadata()))
+
+      route(message)
+    }
+  }
+
+  private def route(message: MessageEnvelope[BytesPayload]): Consumer.Effect = {
     val payload = message.payload()
     // make sure we route based on the new type url if we get an old json type url message
-    val inputTypeUrl = internalSerializer.removeVersion(internalSerializer.replaceLegacyJsonPrefix(payload.contentType))
-
-    // FIXME drop this because we don't really support field injection of the component client in the Akka SDK?
-    // lookup ComponentClient
-    val componentClients = Reflect.lookupComponentClientFields(consumer)
-    componentClients.foreach(_.callMetadata = Some(message.metadata()))
+    val inputTypeUrl = internalSerializer.routingTypeUrl(payload.contentType)
 
     val methodInvoker = methodInvokers.get(inputTypeUrl)
     methodInvoker match {
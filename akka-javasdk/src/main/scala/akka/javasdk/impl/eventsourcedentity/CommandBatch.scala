@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.eventsourcedentity
+
+import scala.jdk.CollectionConverters._
+
+import akka.annotation.InternalApi
+import akka.runtime.sdk.spi.BytesPayload
+import akka.util.ByteString
+import akka.javasdk.impl.serialization.JsonSerializer
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectMapper
+
+/**
+ * INTERNAL API
+ *
+ * Several commands for one event sourced entity sent as a single command, handled one after the other against the
+ * evolving state, with the events of all of them persisted together. The replies are in the order of the commands,
+ * either the error description or the reply payload.
+ *
+ * Encoded as CBOR, so that the payloads of the commands and replies are embedded as byte strings, as they are, rather
+ * than as base64 text in JSON.
+ */
+@InternalApi
+private[impl] object CommandBatch {
+
+  // can not clash with the capitalized name of a command handler method
+  val CommandName = "_CommandBatch"
+
+  val ContentType = "application/cbor"
+
+  private def mapper: ObjectMapper = JsonSerializer.internalCborObjectMapper
+
+  final case class BatchedCommand(name: String, payload: BytesPayload)
+
+  def encodeCommands(commands: Seq[BatchedCommand]): BytesPayload = {
+    val array = mapper.createArrayNode()
+    commands.foreach { command =>
+      array
+        .addObject()
+        .put("name", command.name)
+        .put("contentType", command.payload.contentType)
+        .put("payload", command.payload.bytes.toArrayUnsafe())
+    }
+    new BytesPayload(ByteString.fromArrayUnsafe(mapper.writeValueAsBytes(array)), ContentType)
+  }
+
+  def decodeCommands(payload: BytesPayload): IndexedSeq[BatchedCommand] =
+    readArray(payload).map { node =>
+      BatchedCommand(node.get("name").asText(), readPayload(node))
+    }
+
+  def encodeReplies(replies: Seq[Either[String, BytesPayload]]): BytesPayload = {
+    val array = mapper.createArrayNode()
+    replies.foreach {
+      case Left(description) =>
+        array.addObject().put("error", description)
+      case Right(reply) =>
+        array.addObject().put("contentType", reply.contentType).put("payload", reply.bytes.toArrayUnsafe())
+    }
+    new BytesPayload(ByteString.fromArrayUnsafe(mapper.writeValueAsBytes(array)), ContentType)
+  }
+
+  def decodeReplies(payload: BytesPayload): IndexedSeq[Either[String, BytesPayload]] =
+    readArray(payload).map { node =>
+      val error = node.get("error")
+      if (error ne null) Left(error.asText())
+      else Right(readPayload(node))
+    }
+
+  private def readArray(payload: BytesPayload): IndexedSeq[JsonNode] =
+    mapper.readTree(payload.bytes.toArrayUnsafe()).elements().asScala.toIndexedSeq
+
+  private def readPayload(node: JsonNode): BytesPayload =
+    new BytesPayload(ByteString.fromArrayUnsafe(node.get("payload").binaryValue()), node.get("contentType").asText())
+}
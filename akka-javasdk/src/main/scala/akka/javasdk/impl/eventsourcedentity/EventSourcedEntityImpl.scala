@@ -40,6 +40,7 @@ import akka.runtime.sdk.spi.SpiEventSourcedEntity
 import akka.runtime.sdk.spi.SpiMetadata
 import io.opentelemetry.api.trace.Span
 import io.opentelemetry.api.trace.Tracer
+import org.slf4j.LoggerFactory
 import org.slf4j.MDC
 
 /**
@@ -48,6 +49,8 @@ import org.slf4j.MDC
 @InternalApi
 private[impl] object EventSourcedEntityImpl {
 
+  private val log = LoggerFactory.getLogger(classOf[EventSourcedEntityImpl[_, _, _]])
+
   private class CommandContextImpl(
       override val entityId: String,
       override val sequenceNumber: Long,
@@ -76,6 +79,28 @@ private[impl] object EventSourcedEntityImpl {
       extends EventSourcedEntityContextImpl(entityId, selfRegion)
       with EventContext
 
+  /**
+   * The event context while replaying events from the journal, one instance per entity updated for each event, since
+   * the events of an entity are never replayed concurrently. An event handler keeping the context it got from
+   * `eventContext()` sees the sequence number of later events through it.
+   */
+  private final class ReplayEventContext(entityId: String, override val selfRegion: String)
+      extends EventSourcedEntityContextImpl(entityId, selfRegion)
+      with EventContext {
+    var currentSequenceNumber: Long = 0L
+    override def sequenceNumber(): Long = currentSequenceNumber
+  }
+
+  /**
+   * The outcome of a command batch, the reply or error of each command, and the events and resulting state of the
+   * commands that succeeded.
+   */
+  private[eventsourcedentity] final case class CommandBatchResult(
+      replies: Seq[Either[String, BytesPayload]],
+      events: Vector[BytesPayload],
+      state: SpiEventSourcedEntity.State,
+      deleteEntity: Boolean)
+
 }
 
 /**
@@ -90,6 +115,7 @@ private[impl] final class EventSourcedEntityImpl[S, E, ES <: EventSourcedEntity[
     componentDescriptor: ComponentDescriptor,
     entityStateType: Class[S],
     regionInfo: RegionInfo,
+    replayCostThresholds: ReplayCostThresholds,
     factory: EventSourcedEntityContext => ES)
     extends SpiEventSourcedEntity {
   import EventSourcedEntityImpl._
@@ -105,6 +131,10 @@ private[impl] final class EventSourcedEntityImpl[S, E, ES <: EventSourcedEntity[
   private def entity: EventSourcedEntity[AnyRef, AnyRef] =
     router.entity
 
+  private lazy val replayEventContext = new ReplayEventContext(entityId, regionInfo.selfRegion)
+
+  private val replayCost = new ReplayCost(replayCostThresholds)
+
   override def emptyState: SpiEventSourcedEntity.State =
     entity.emptyState()
 
@@ -112,6 +142,21 @@ private[impl] final class EventSourcedEntityImpl[S, E, ES <: EventSourcedEntity[
       state: SpiEventSourcedEntity.State,
       command: SpiEntity.Command): Future[SpiEventSourcedEntity.Effect] = {
 
+    if (replayCost.recoveryCompleted())
+      log.warn(
+        s"Recovering event sourced entity [$componentId] with id [$entityId] replayed [${replayCost.events}] events " +
+        s"of [${replayCost.bytes}] bytes in [${replayCost.nanos / 1000000}] ms, more than configured in " +
+        "akka.javasdk.event-sourced-entity.replay-cost-warning. Consider lowering " +
+        "akka.javasdk.event-sourced-entity.snapshot-every, or making the events smaller.")
+
+    if (command.name == CommandBatch.CommandName) Future.successful(handleCommandBatch(state, command))
+    else handleSingleCommand(state, command)
+  }
+
+  private def handleSingleCommand(
+      state: SpiEventSourcedEntity.State,
+      command: SpiEntity.Command): Future[SpiEventSourcedEntity.Effect] = {
+
     val span: Option[Span] =
       traceInstrumentation.buildEntityCommandSpan(ComponentType.EventSourcedEntity, componentId, entityId, command)
     span.foreach(s => MDC.put(Telemetry.TRACE_ID, s.getSpanContext.getTraceId))
@@ -165,7 +210,7 @@ private[impl] final class EventSourcedEntityImpl[S, E, ES <: EventSourcedEntity[
             case Left(err) =>
               Future.successful(new SpiEventSourcedEntity.ErrorEffect(err))
             case Right((reply, metadata)) =>
-              val serializedEvents = events.map(event => serializer.toBytes(event)).toVector
+              val serializedEvents = events.map(event => serializer.toInternalBytes(event)).toVector
 
               Future.successful(
                 new SpiEventSourcedEntity.PersistEffect(
@@ -210,12 +255,152 @@ private[impl] final class EventSourcedEntityImpl[S, E, ES <: EventSourcedEntity[
 
   }
 
+  private def handleCommandBatch(
+      state: SpiEventSourcedEntity.State,
+      command: SpiEntity.Command): SpiEventSourcedEntity.Effect = {
+
+    val span: Option[Span] =
+      traceInstrumentation.buildEntityCommandSpan(ComponentType.EventSourcedEntity, componentId, entityId, command)
+    span.foreach(s => MDC.put(Telemetry.TRACE_ID, s.getSpanContext.getTraceId))
+    try {
+      val result = handleCommandBatch(
+        state,
+        CommandBatch.decodeCommands(command.payload.getOrElse(BytesPayload.empty)),
+        command.sequenceNumber,
+        command.isDeleted,
+        MetadataImpl.of(command.metadata),
+        span)
+      val replies = CommandBatch.encodeReplies(result.replies)
+      if (result.events.isEmpty && !result.deleteEntity)
+        new SpiEventSourcedEntity.ReplyEffect(replies, SpiMetadata.empty)
+      else
+        new SpiEventSourcedEntity.PersistEffect(
+          events = result.events,
+          result.state,
+          replies,
+          SpiMetadata.empty,
+          deleteEntity = result.deleteEntity)
+    } finally {
+      span.foreach { s =>
+        MDC.remove(Telemetry.TRACE_ID)
+        s.end()
+      }
+    }
+  }
+
+  /**
+   * Handle the commands of a batch in order, each with the state left by the ones before it. A command replying with
+   * an error, or with invalid input, has no effect on the others and gets the error as its reply, any other failure
+   * fails the whole batch like it fails a single command.
+   */
+  private[eventsourcedentity] def handleCommandBatch(
+      state: SpiEventSourcedEntity.State,
+      commands: Seq[CommandBatch.BatchedCommand],
+      sequenceNumber: Long,
+      isDeleted: Boolean,
+      metadata: Metadata,
+      span: Option[Span]): CommandBatchResult = {
+
+    // the state, sequence number and deletion as left by the commands handled so far
+    var updatedState = state
+    var currentSequence = sequenceNumber
+    var deleted = isDeleted
+    val persistedEvents = Vector.newBuilder[BytesPayload]
+
+    def handleBatched(batched: CommandBatch.BatchedCommand): Either[String, BytesPayload] = {
+      val cmdContext =
+        new CommandContextImpl(
+          entityId,
+          currentSequence,
+          batched.name,
+          deleted,
+          regionInfo.selfRegion,
+          metadata,
+          span,
+          tracerFactory)
+      try {
+        entity._internalSetCommandContext(Optional.of(cmdContext))
+        entity._internalSetCurrentState(updatedState, deleted)
+        val commandEffect = router
+          .handleCommand(batched.name, batched.payload)
+          .asInstanceOf[EventSourcedEntityEffectImpl[AnyRef, E]]
+
+        val (events, deleteEntity) = commandEffect.primaryEffect match {
+          case EmitEvents(emitted, delete) => (emitted, delete)
+          case NoPrimaryEffect             => (Nil, false)
+        }
+        var commandState = updatedState
+        var commandSequence = currentSequence
+        events.foreach { event =>
+          commandState = entityHandleEvent(commandState, event.asInstanceOf[AnyRef], commandSequence)
+          if (commandState == null)
+            throw new IllegalArgumentException("Event handler must not return null as the updated state.")
+          commandSequence += 1
+        }
+
+        commandEffect.secondaryEffect(commandState) match {
+          case ErrorReplyImpl(description) =>
+            Left(description)
+          case MessageReplyImpl(message, _) =>
+            val reply = serializer.toBytes(message)
+            events.foreach(event => persistedEvents += serializer.toInternalBytes(event))
+            updatedState = commandState
+            currentSequence = commandSequence
+            deleted = deleted || deleteEntity
+            Right(reply)
+          case NoSecondaryEffectImpl =>
+            throw new IllegalStateException("Expected reply or error")
+        }
+      } catch {
+        case BadRequestException(msg) =>
+          Left(msg)
+        case e: EntityException =>
+          throw e
+        case NonFatal(error) =>
+          // also covers HandlerNotFoundException
+          throw EntityException(
+            entityId = entityId,
+            commandName = batched.name,
+            s"Unexpected failure: $error",
+            Some(error))
+      } finally {
+        entity._internalSetCommandContext(Optional.empty())
+        cmdContext.deactivate() // Very important!
+      }
+    }
+
+    try {
+      val replies = commands.map(handleBatched)
+      CommandBatchResult(replies, persistedEvents.result(), updatedState, deleteEntity = deleted && !isDeleted)
+    } finally {
+      entity._internalClearCurrentState()
+    }
+  }
+
   override def handleEvent(
       state: SpiEventSourcedEntity.State,
-      eventEnv: SpiEventSourcedEntity.EventEnvelope): SpiEventSourcedEntity.State = {
-    // all event types are preemptively registered to the serializer by the ReflectiveEventSourcedEntityRouter
-    val event = serializer.fromBytes(eventEnv.payload)
-    entityHandleEvent(state, event, eventEnv.sequenceNumber)
+      eventEnv: SpiEventSourcedEntity.EventEnvelope): SpiEventSourcedEntity.State =
+    handleEvent(state, eventEnv.sequenceNumber, eventEnv.payload)
+
+  private[eventsourcedentity] def handleEvent(
+      state: SpiEventSourcedEntity.State,
+      sequenceNumber: Long,
+      payload: BytesPayload): SpiEventSourcedEntity.State = {
+    val startNanos = System.nanoTime()
+    // all event types are preemptively registered to the serializer by the ReflectiveEventSourcedEntityRouter,
+    // the serializer keeps the reader for the content type of the last decoded event
+    val event = serializer.fromBytes(payload)
+    replayEventContext.currentSequenceNumber = sequenceNumber
+    entity._internalSetEventContext(Optional.of(replayEventContext))
+    val clearState = entity._internalSetCurrentState(state, false)
+    try {
+      router.handleEvent(event)
+    } finally {
+      entity._internalSetEventContext(Optional.empty())
+      if (clearState)
+        entity._internalClearCurrentState()
+      replayCost.replayed(1, payload.bytes.size, System.nanoTime() - startNanos)
+    }
   }
 
   def entityHandleEvent(
@@ -235,7 +420,7 @@ private[impl] final class EventSourcedEntityImpl[S, E, ES <: EventSourcedEntity[
   }
 
   override def stateToBytes(obj: SpiEventSourcedEntity.State): BytesPayload =
-    serializer.toBytes(obj)
+    serializer.toInternalBytes(obj)
 
   override def stateFromBytes(pb: BytesPayload): SpiEventSourcedEntity.State =
     serializer.fromBytes(entityStateType, pb).asInstanceOf[SpiEventSourcedEntity.State]
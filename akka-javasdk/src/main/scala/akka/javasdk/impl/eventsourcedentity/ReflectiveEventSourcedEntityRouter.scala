@@ -32,7 +32,7 @@ private[impl] class ReflectiveEventSourcedEntityRouter[S, E, ES <: EventSourcedE
 
     val methodInvoker = methodInvokerLookup(commandName)
 
-    if (serializer.isJson(command) || command.isEmpty) {
+    if (serializer.isSdkEncoded(command) || command.isEmpty) {
       // - BytesPayload.empty - there is no real command, and we are calling a method with arity 0
       // - BytesPayload with json - we deserialize it and call the method
       val deserializedCommand =
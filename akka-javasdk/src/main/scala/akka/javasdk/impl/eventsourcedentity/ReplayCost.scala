@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.eventsourcedentity
+
+import scala.concurrent.duration.Duration
+import scala.concurrent.duration.FiniteDuration
+import scala.jdk.CollectionConverters._
+import scala.jdk.DurationConverters._
+
+import akka.annotation.InternalApi
+import com.typesafe.config.Config
+import com.typesafe.config.ConfigUtil
+
+/**
+ * INTERNAL API
+ *
+ * Limits on the cost of recovering an event sourced entity from the events since its last snapshot, 0 for no limit.
+ */
+@InternalApi
+private[impl] final case class ReplayCostThresholds(events: Long, bytes: Long, duration: FiniteDuration) {
+
+  def isExceededBy(replayedEvents: Long, replayedBytes: Long, replayNanos: Long): Boolean =
+    (events > 0 && replayedEvents > events) ||
+    (bytes > 0 && replayedBytes > bytes) ||
+    (duration.length > 0 && replayNanos > duration.toNanos)
+}
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[impl] object ReplayCostThresholds {
+
+  val NoLimits: ReplayCostThresholds = ReplayCostThresholds(0, 0, Duration.Zero)
+
+  /**
+   * The thresholds per component id from `akka.javasdk.event-sourced-entity.replay-cost-warning`, the default ones
+   * under the empty string key.
+   */
+  def fromConfig(replayCostConfig: Config): Map[String, ReplayCostThresholds] = {
+    val defaults = thresholds(replayCostConfig)
+    val components = replayCostConfig.getConfig("components")
+    val perComponent = components.root.keySet.asScala.map { componentId =>
+      componentId -> thresholds(
+        components.getConfig(ConfigUtil.quoteString(componentId)).withFallback(replayCostConfig))
+    }
+    perComponent.toMap.updated("", defaults)
+  }
+
+  private def thresholds(config: Config): ReplayCostThresholds =
+    ReplayCostThresholds(
+      events = config.getLong("events"),
+      bytes = config.getBytes("bytes"),
+      duration = config.getDuration("duration").toScala)
+}
+
+/**
+ * INTERNAL API
+ *
+ * The events replayed when recovering one event sourced entity instance, checked against the thresholds once the
+ * entity has recovered.
+ */
+@InternalApi
+private[impl] final class ReplayCost(thresholds: ReplayCostThresholds) {
+  private var _events = 0L
+  private var _bytes = 0L
+  private var _nanos = 0L
+  private var recovered = false
+
+  def events: Long = _events
+  def bytes: Long = _bytes
+  def nanos: Long = _nanos
+
+  def replayed(eventCount: Int, eventBytes: Long, durationNanos: Long): Unit =
+    if (!recovered) {
+      _events += eventCount
+      _bytes += eventBytes
+      _nanos += durationNanos
+    }
+
+  /**
+   * Called for every command, true for the first command only and only if the recovery exceeded the thresholds.
+   */
+  def recoveryCompleted(): Boolean =
+    if (recovered) false
+    else {
+      recovered = true
+      thresholds.isExceededBy(_events, _bytes, _nanos)
+    }
+}
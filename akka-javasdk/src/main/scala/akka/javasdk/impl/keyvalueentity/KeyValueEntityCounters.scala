@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.keyvalueentity
+
+import java.util.concurrent.atomic.LongAdder
+
+import akka.annotation.InternalApi
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[impl] object KeyValueEntityCounters {
+
+  /**
+   * Counters of a key value entity, registered as `akka.javasdk:type=KeyValueEntity,name=<component id>` with the
+   * platform MBean server.
+   */
+  trait KeyValueEntityCountersMXBean {
+    def getSkippedUnchangedUpdates: Long
+  }
+}
+
+/**
+ * INTERNAL API
+ *
+ * Shared by all instances of one key value entity.
+ */
+@InternalApi
+private[impl] final class KeyValueEntityCounters extends KeyValueEntityCounters.KeyValueEntityCountersMXBean {
+  private val skippedUnchangedUpdates = new LongAdder
+
+  def unchangedUpdateSkipped(): Unit = skippedUnchangedUpdates.increment()
+
+  override def getSkippedUnchangedUpdates: Long = skippedUnchangedUpdates.sum()
+}
@@ -80,6 +80,7 @@ private[impl] final class KeyValueEntityImpl[S, KV <: KeyValueEntity[S]](
     componentDescriptor: ComponentDescriptor,
     entityStateType: Class[S],
     regionInfo: RegionInfo,
+    skipUnchangedUpdates: Option[KeyValueEntityCounters],
     factory: KeyValueEntityContext => KV)
     extends SpiEventSourcedEntity {
   import KeyValueEntityEffectImpl._
@@ -96,6 +97,9 @@ private[impl] final class KeyValueEntityImpl[S, KV <: KeyValueEntity[S]](
   private def entity: KeyValueEntity[AnyRef] =
     router.entity
 
+  // only kept when skipping unchanged updates, if persisting fails the runtime stops the entity instance
+  private var lastPersistedState: BytesPayload = null
+
   override def emptyState: SpiEventSourcedEntity.State =
     entity.emptyState()
 
@@ -106,17 +110,38 @@ private[impl] final class KeyValueEntityImpl[S, KV <: KeyValueEntity[S]](
     val span: Option[Span] =
       traceInstrumentation.buildEntityCommandSpan(ComponentType.KeyValueEntity, componentId, entityId, command)
     span.foreach(s => MDC.put(Telemetry.TRACE_ID, s.getSpanContext.getTraceId))
-    // smuggling 0 arity method called from component client through here
-    val cmdPayload = command.payload.getOrElse(BytesPayload.empty)
-    val metadata: Metadata = MetadataImpl.of(command.metadata)
+    try {
+      handleCommand(
+        state,
+        command.name,
+        // smuggling 0 arity method called from component client through here
+        command.payload.getOrElse(BytesPayload.empty),
+        MetadataImpl.of(command.metadata),
+        command.isDeleted,
+        span)
+    } finally {
+      span.foreach { s =>
+        MDC.remove(Telemetry.TRACE_ID)
+        s.end()
+      }
+    }
+  }
+
+  private[keyvalueentity] def handleCommand(
+      state: SpiEventSourcedEntity.State,
+      commandName: String,
+      cmdPayload: BytesPayload,
+      metadata: Metadata,
+      isDeleted: Boolean,
+      span: Option[Span]): Future[SpiEventSourcedEntity.Effect] = {
     val cmdContext =
-      new CommandContextImpl(entityId, command.name, regionInfo.selfRegion, metadata, span, tracerFactory)
+      new CommandContextImpl(entityId, commandName, regionInfo.selfRegion, metadata, span, tracerFactory)
 
     try {
       entity._internalSetCommandContext(Optional.of(cmdContext))
-      entity._internalSetCurrentState(state, command.isDeleted)
+      entity._internalSetCurrentState(state, isDeleted)
       val commandEffect = router
-        .handleCommand(command.name, cmdPayload)
+        .handleCommand(commandName, cmdPayload)
         .asInstanceOf[KeyValueEntityEffectImpl[AnyRef]] // FIXME improve?
 
       def errorOrReply: Either[SpiEntity.Error, (BytesPayload, SpiMetadata)] = {
@@ -140,13 +165,20 @@ private[impl] final class KeyValueEntityImpl[S, KV <: KeyValueEntity[S]](
             case Right((reply, metadata)) =>
               val serializedState = serializer.toBytes(updatedState)
 
-              Future.successful(
-                new SpiEventSourcedEntity.PersistEffect(
-                  events = Vector(serializedState),
-                  updatedState,
-                  reply,
-                  metadata,
-                  deleteEntity = false))
+              skipUnchangedUpdates match {
+                case Some(counters) if !isDeleted && isLastPersisted(serializedState) =>
+                  counters.unchangedUpdateSkipped()
+                  Future.successful(new SpiEventSourcedEntity.ReplyEffect(reply, metadata))
+                case _ =>
+                  if (skipUnchangedUpdates.isDefined) lastPersistedState = serializedState
+                  Future.successful(
+                    new SpiEventSourcedEntity.PersistEffect(
+                      events = Vector(serializedState),
+                      updatedState,
+                      reply,
+                      metadata,
+                      deleteEntity = false))
+              }
           }
 
         case DeleteEntity =>
@@ -154,6 +186,7 @@ private[impl] final class KeyValueEntityImpl[S, KV <: KeyValueEntity[S]](
             case Left(err) =>
               Future.successful(new SpiEventSourcedEntity.ErrorEffect(err))
             case Right((reply, metadata)) =>
+              lastPersistedState = null
               Future.successful(
                 new SpiEventSourcedEntity.PersistEffect(
                   events = Vector.empty,
@@ -181,22 +214,21 @@ private[impl] final class KeyValueEntityImpl[S, KV <: KeyValueEntity[S]](
         // also covers HandlerNotFoundException
         throw EntityException(
           entityId = entityId,
-          commandName = command.name,
+          commandName = commandName,
           s"Unexpected failure: $error",
           Some(error))
     } finally {
       entity._internalSetCommandContext(Optional.empty())
       entity._internalClearCurrentState()
       cmdContext.deactivate() // Very important!
-
-      span.foreach { s =>
-        MDC.remove(Telemetry.TRACE_ID)
-        s.end()
-      }
     }
-
   }
 
+  private def isLastPersisted(serializedState: BytesPayload): Boolean =
+    (lastPersistedState ne null) &&
+    lastPersistedState.contentType == serializedState.contentType &&
+    lastPersistedState.bytes == serializedState.bytes
+
   override def handleEvent(
       state: SpiEventSourcedEntity.State,
       eventEnv: SpiEventSourcedEntity.EventEnvelope): SpiEventSourcedEntity.State = {
@@ -206,6 +238,11 @@ private[impl] final class KeyValueEntityImpl[S, KV <: KeyValueEntity[S]](
   override def stateToBytes(obj: SpiEventSourcedEntity.State): BytesPayload =
     serializer.toBytes(obj)
 
-  override def stateFromBytes(pb: BytesPayload): SpiEventSourcedEntity.State =
-    serializer.fromBytes(entityStateType, pb).asInstanceOf[SpiEventSourcedEntity.State]
+  override def stateFromBytes(pb: BytesPayload): SpiEventSourcedEntity.State = {
+    val state = serializer.fromBytes(entityStateType, pb).asInstanceOf[SpiEventSourcedEntity.State]
+    // compared with the state encoded as it is now, the stored bytes may have been written with a legacy content type
+    // prefix, an older version of the type or an older version of the SDK
+    if (skipUnchangedUpdates.isDefined) lastPersistedState = serializer.toBytes(state)
+    state
+  }
 }
@@ -24,24 +24,33 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect
 import com.fasterxml.jackson.annotation.JsonCreator
 import com.fasterxml.jackson.annotation.JsonSubTypes
 import com.fasterxml.jackson.annotation.PropertyAccessor
+import com.fasterxml.jackson.core.JsonEncoding
 import com.fasterxml.jackson.core.JsonGenerator
 import com.fasterxml.jackson.core.JsonParser
 import com.fasterxml.jackson.core.JsonProcessingException
 import com.fasterxml.jackson.core.JsonToken
+import com.fasterxml.jackson.core.SerializableString
+import com.fasterxml.jackson.core.util.ByteArrayBuilder
 import com.fasterxml.jackson.databind.DeserializationContext
 import com.fasterxml.jackson.databind.DeserializationFeature
 import com.fasterxml.jackson.databind.JsonMappingException
+import com.fasterxml.jackson.databind.JsonNode
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.ObjectReader
+import com.fasterxml.jackson.databind.ObjectWriter
 import com.fasterxml.jackson.databind.SerializationFeature
 import com.fasterxml.jackson.databind.SerializerProvider
 import com.fasterxml.jackson.databind.jsontype.TypeDeserializer
 import com.fasterxml.jackson.databind.jsontype.TypeSerializer
 import com.fasterxml.jackson.databind.module.SimpleModule
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory
 
 import java.lang.reflect.ParameterizedType
 import java.lang.reflect.Type
 import java.util.Optional
 
+import scala.util.control.Exception.Catcher
+
 /**
  * INTERNAL API
  */
@@ -50,10 +59,123 @@ object JsonSerializer {
   val JsonContentTypePrefix: String = "json.akka.io/"
   private val KalixJsonContentTypePrefix: String = "json.kalix.io/"
 
+  /**
+   * Prefix for internal payloads encoded with CBOR, the binary representation of the same data model as JSON. Only
+   * written when binary encoding is enabled, but always accepted when decoding.
+   */
+  val CborContentTypePrefix: String = "cbor.akka.io/"
+
   final case class TypeHint(currenTypeHintWithVersion: String, allTypeHints: List[String])
 
-  def newObjectMapperWithDefaults(): ObjectMapper = {
-    val mapper = new ObjectMapper
+  /**
+   * The migration declared with `@Migration` on a type, instantiated once per type.
+   *
+   * @param customTransform
+   *   true if the migration overrides `transform` and therefore needs the payload as a `JsonNode` tree
+   */
+  private[serialization] final case class MigrationInfo(
+      migration: JsonMigration,
+      currentVersion: Int,
+      supportedForwardVersion: Int,
+      supportedClassNames: List[String],
+      customTransform: Boolean) {
+
+    private val fieldChangesByVersion = new ConcurrentHashMap[Int, ResolvedFieldChanges]()
+
+    def fieldChanges(fromVersion: Int, objectMapper: ObjectMapper): ResolvedFieldChanges =
+      fieldChangesByVersion.computeIfAbsent(
+        fromVersion,
+        _ => ResolvedFieldChanges(migration.fieldChanges(fromVersion), objectMapper))
+  }
+
+  /**
+   * What can be derived from a content type string alone, computed once per distinct content type.
+   *
+   * @param typeName
+   *   the type name without prefix and version, as registered in the reversed type hints
+   * @param typeUrl
+   *   the JSON content type without version, legacy and binary prefixes replaced, used to route to handlers
+   */
+  private[akka] final class ContentTypeInfo(
+      val contentType: String,
+      val isJson: Boolean,
+      val binary: Boolean,
+      val typeName: String,
+      val typeUrl: String) {
+
+    // only needed for types with migrations, and only valid for JSON content types
+    lazy val version: Int = parseVersion(contentType)
+
+    // the class registered for the type name, resolved on first use as types can be registered later
+    @volatile private[serialization] var typeClass: Class[_] = null
+    // the plan of the last class decoded from this content type, in practice always the same class
+    @volatile private[serialization] var lastDecodePlan: DecodePlan = null
+  }
+
+  /**
+   * Everything needed to decode a payload of a given content type into a class.
+   */
+  private[serialization] final class DecodePlan(val valueClass: Class[_], val migration: Option[MigrationInfo], val reader: ObjectReader)
+
+  // content types are not unbounded in practice, but they come from the outside so we stop caching at some point
+  private val MaxCachedContentTypes = 10000
+
+  private def parseVersion(contentType: String): Int = {
+    val versionSeparatorIndex = contentType.lastIndexOf('#')
+    if (versionSeparatorIndex > 0) {
+      contentType.substring(versionSeparatorIndex + 1).toInt
+    } else
+      0
+  }
+
+  // reader cache key for collections of a given element type
+  private final case class CollectionOf(collectionType: Class[_], valueClass: Class[_]) extends Type
+
+  /**
+   * Readers and writers for one object mapper. They are immutable and thread safe, creating them requires a root type
+   * lookup so we keep them around.
+   */
+  private final class MapperCodec(val mapper: ObjectMapper) {
+    private val writers: ConcurrentMap[Class[_], ObjectWriter] = new ConcurrentHashMap()
+    private val readers: ConcurrentMap[Type, ObjectReader] = new ConcurrentHashMap()
+
+    def writerFor(clz: Class[_]): ObjectWriter =
+      writers.computeIfAbsent(clz, (c: Class[_]) => mapper.writerFor(c))
+
+    /**
+     * Note that for `Optional` the reader is for the wrapped type, the result must be wrapped by the caller.
+     */
+    def readerFor(valueType: Type): ObjectReader =
+      readers.computeIfAbsent(valueType, createReader)
+
+    def collectionReaderFor(collectionType: Class[_ <: util.Collection[_]], valueClass: Class[_]): ObjectReader =
+      readers.computeIfAbsent(
+        CollectionOf(collectionType, valueClass),
+        _ => mapper.readerFor(mapper.getTypeFactory.constructCollectionType(collectionType, valueClass)))
+
+    private def createReader(valueType: Type): ObjectReader = {
+      val clazz = valueType match {
+        case c: Class[_]          => c
+        case p: ParameterizedType => p.getRawType.asInstanceOf[Class[_]]
+      }
+      valueType match {
+        case p: ParameterizedType if classOf[java.util.Collection[_]].isAssignableFrom(clazz) =>
+          mapper.readerForListOf(p.getActualTypeArguments.head.asInstanceOf[Class[_]])
+        case p: ParameterizedType if classOf[java.util.Optional[_]].isAssignableFrom(clazz) =>
+          mapper.readerFor(p.getActualTypeArguments.head.asInstanceOf[Class[_]])
+        case _: ParameterizedType =>
+          // for other parameterized types we rely on jackson being able to handle it
+          mapper.readerFor(clazz)
+        case valueClass: Class[_] =>
+          mapper.readerFor(valueClass)
+      }
+    }
+  }
+
+  def newObjectMapperWithDefaults(): ObjectMapper =
+    configureDefaults(new ObjectMapper)
+
+  private def configureDefaults(mapper: ObjectMapper): ObjectMapper = {
 
     // Date/time in ISO-8601 (rfc3339) yyyy-MM-dd'T'HH:mm:ss.SSSZ format
     // as defined by com.fasterxml.jackson.databind.util.StdDateFormat
@@ -84,6 +206,23 @@ object JsonSerializer {
   // internal mapper used for serialization when passing objects to the runtime
   val internalObjectMapper: ObjectMapper = newObjectMapperWithDefaults()
 
+  // same settings as the internal mapper, but reading and writing CBOR
+  lazy val internalCborObjectMapper: ObjectMapper = configureDefaults(new ObjectMapper(new CBORFactory))
+
+  /**
+   * A serializer for internal payloads that uses the record codecs generated by the annotation processor, registered on
+   * copies of the internal mappers so that the shared ones are not affected.
+   */
+  def internalWithGeneratedCodecs(
+      codecClasses: Seq[Class[_ <: RecordCodec[_]]],
+      binaryEncoding: Boolean): JsonSerializer =
+    if (codecClasses.isEmpty) new JsonSerializer(internalObjectMapper, binaryEncoding)
+    else
+      new JsonSerializer(
+        internalObjectMapper.copy().registerModule(RecordCodec.module(codecClasses)),
+        binaryEncoding,
+        internalCborObjectMapper.copy().registerModule(RecordCodec.module(codecClasses)))
+
   object DoneSerializer extends com.fasterxml.jackson.databind.JsonSerializer[Done] {
 
     override def serialize(value: Done, gen: JsonGenerator, serializers: SerializerProvider): Unit = {
@@ -129,9 +268,14 @@ object JsonSerializer {
  * INTERNAL API
  */
 @InternalApi
-final class JsonSerializer(val objectMapper: ObjectMapper) {
+final class JsonSerializer(val objectMapper: ObjectMapper, binaryEncoding: Boolean, cborObjectMapper: => ObjectMapper) {
   import JsonSerializer._
 
+  def this(objectMapper: ObjectMapper, binaryEncoding: Boolean) =
+    this(objectMapper, binaryEncoding, JsonSerializer.internalCborObjectMapper)
+
+  def this(objectMapper: ObjectMapper) = this(objectMapper, binaryEncoding = false)
+
   def this() = this(JsonSerializer.internalObjectMapper)
 
   /* Mostly used for internal serialization (events, snapshots, messages sent through component client)
@@ -143,57 +287,61 @@ final class JsonSerializer(val objectMapper: ObjectMapper) {
   private val typeHints: ConcurrentMap[Class[_], TypeHint] = new ConcurrentHashMap()
   val reversedTypeHints: ConcurrentMap[String, Class[_]] = new ConcurrentHashMap()
 
+  private val jsonCodec = new MapperCodec(objectMapper)
+  // binary payloads are only ever internal, so always with the internal mapper settings
+  private lazy val cborCodec = new MapperCodec(cborObjectMapper)
+  private val migrations: ConcurrentMap[Class[_], Option[MigrationInfo]] = new ConcurrentHashMap()
+  private val contentTypes: ConcurrentMap[String, ContentTypeInfo] = new ConcurrentHashMap()
+
   override def toString: String = s"JsonSerializer: ${typeHints.keySet().size()} registered types"
 
   def toBytes(value: Any): BytesPayload = {
     if (value == null) throw NullSerializationException
     val typeHint = lookupTypeHintWithVersion(value)
-    val byteArray = objectMapper.writerFor(value.getClass).writeValueAsBytes(value)
+    val byteArray = jsonCodec.writerFor(value.getClass).writeValueAsBytes(value)
     new BytesPayload(bytes = ByteString.fromArrayUnsafe(byteArray), contentType = JsonContentTypePrefix + typeHint)
   }
 
+  /**
+   * For payloads that are only ever read by this SDK, like events, snapshots and component client commands. Encoded
+   * as CBOR if binary encoding is enabled, otherwise the same as `toBytes`. Must not be used for anything the runtime
+   * or external parties parse, like view rows or messages produced to topics.
+   */
+  def toInternalBytes(value: Any): BytesPayload = {
+    if (!binaryEncoding) toBytes(value)
+    else {
+      if (value == null) throw NullSerializationException
+      val typeHint = lookupTypeHintWithVersion(value)
+      val byteArray = cborCodec.writerFor(value.getClass).writeValueAsBytes(value)
+      new BytesPayload(bytes = ByteString.fromArrayUnsafe(byteArray), contentType = CborContentTypePrefix + typeHint)
+    }
+  }
+
   def fromBytes[T](expectedType: Type, bytesPayload: BytesPayload): T = {
-    val clazz = expectedType match {
+    val contentTypeInfo = contentTypeInfoFor(bytesPayload.contentType)
+    expectedType match {
+      case clazz: Class[_] =>
+        decode(decodePlanFor(contentTypeInfo, clazz), contentTypeInfo, bytesPayload.bytes).asInstanceOf[T]
       case parameterizedType: ParameterizedType =>
-        parameterizedType.getRawType.asInstanceOf[Class[T]]
-      case other => other.asInstanceOf[Class[T]]
-    }
-    try {
-      val migrationAnnotation = clazz.getAnnotation(classOf[Migration])
-      if (migrationAnnotation != null) {
-        val migration = migrationAnnotation
-          .value()
-          .getConstructor()
-          .newInstance()
-        val fromVersion = parseVersion(bytesPayload.contentType)
-        val currentVersion = migration.currentVersion()
-        val supportedForwardVersion = migration.supportedForwardVersion
-        if (fromVersion < currentVersion) {
-          migrate(clazz, bytesPayload.bytes, fromVersion, migration);
-        } else if (fromVersion == currentVersion) {
-          parseBytes(clazz, bytesPayload.bytes)
-        } else if (fromVersion <= supportedForwardVersion) {
-          migrate(clazz, bytesPayload.bytes, fromVersion, migration)
-        } else {
-          throw new IllegalStateException(
-            s"Migration version [$supportedForwardVersion] is " +
-            "behind version [$fromVersion] of deserialized type [${expectedType.getName}]")
-        }
-      } else {
-        parseBytes(expectedType, bytesPayload.bytes)
-      }
-    } catch {
-      case e: JsonProcessingException =>
-        throw jsonProcessingException(clazz, bytesPayload.contentType, e)
-      case e @ (_: IOException | _: NoSuchMethodException | _: InstantiationException | _: IllegalAccessException |
-          _: InvocationTargetException) =>
-        throw genericDecodeException(clazz, bytesPayload.contentType, e)
+        val clazz = parameterizedType.getRawType.asInstanceOf[Class[T]]
+        val codec = codecFor(contentTypeInfo)
+        try {
+          lookupMigration(clazz) match {
+            case Some(migrationInfo) =>
+              migrateIfNeeded(clazz, bytesPayload.bytes, contentTypeInfo, migrationInfo, codec) {
+                parseBytes(clazz, bytesPayload.bytes, codec)
+              }
+            case None =>
+              parseBytes(expectedType, bytesPayload.bytes, codec)
+          }
+        } catch decodeFailure(clazz, bytesPayload.contentType)
     }
   }
 
   def fromBytes[T](expectedType: Class[T], bytesPayload: BytesPayload): T = {
-    validateIsJson(bytesPayload)
-    fromBytes(expectedType.asInstanceOf[Type], bytesPayload).asInstanceOf[T]
+    val contentTypeInfo = contentTypeInfoFor(bytesPayload.contentType)
+    validateIsSdkEncoded(contentTypeInfo)
+    decode(decodePlanFor(contentTypeInfo, expectedType), contentTypeInfo, bytesPayload.bytes).asInstanceOf[T]
   }
 
   /**
@@ -201,26 +349,31 @@ final class JsonSerializer(val objectMapper: ObjectMapper) {
    * the types are known by first `registerTypeHints` or calling `contentTypeFor` or `toBytes`.
    */
   def fromBytes(bytesPayload: BytesPayload): AnyRef = {
-    validateIsJson(bytesPayload)
-
-    val typeName = removeVersion(stripJsonContentTypePrefix(bytesPayload.contentType))
-    val typeClass = reversedTypeHints.get(typeName).asInstanceOf[Class[AnyRef]]
-    if (typeClass eq null)
-      throw new IllegalStateException(
-        s"Cannot decode [${bytesPayload.contentType}] message type. Class mapping not found.")
-    else
-      fromBytes(typeClass, bytesPayload)
+    val contentTypeInfo = contentTypeInfoFor(bytesPayload.contentType)
+    validateIsSdkEncoded(contentTypeInfo)
+
+    var typeClass = contentTypeInfo.typeClass
+    if (typeClass eq null) {
+      typeClass = reversedTypeHints.get(contentTypeInfo.typeName)
+      if (typeClass eq null)
+        throw new IllegalStateException(
+          s"Cannot decode [${bytesPayload.contentType}] message type. Class mapping not found.")
+      contentTypeInfo.typeClass = typeClass
+    }
+    decode(decodePlanFor(contentTypeInfo, typeClass), contentTypeInfo, bytesPayload.bytes).asInstanceOf[AnyRef]
   }
 
   def fromBytes[T, C <: util.Collection[T]](
       valueClass: Class[T],
       collectionType: Class[C],
       bytesPayload: BytesPayload): C = {
-    validateIsJson(bytesPayload)
+    val contentTypeInfo = contentTypeInfoFor(bytesPayload.contentType)
+    validateIsSdkEncoded(contentTypeInfo)
 
     try {
-      val typeRef = objectMapper.getTypeFactory.constructCollectionType(collectionType, valueClass)
-      objectMapper.readValue(bytesPayload.bytes.toArrayUnsafe(), typeRef)
+      codecFor(contentTypeInfo)
+        .collectionReaderFor(collectionType, valueClass)
+        .readValue[C](bytesPayload.bytes.toArrayUnsafe())
     } catch {
       case e: JsonProcessingException =>
         throw jsonProcessingException(valueClass, bytesPayload.contentType, e)
@@ -229,43 +382,126 @@ final class JsonSerializer(val objectMapper: ObjectMapper) {
     }
   }
 
-  private def parseVersion(contentType: String) = {
-    val versionSeparatorIndex = contentType.lastIndexOf('#')
-    if (versionSeparatorIndex > 0) {
-      contentType.substring(versionSeparatorIndex + 1).toInt
-    } else
-      0
+  /**
+   * The content type info for the raw content type string of a payload, including legacy or binary prefix and version.
+   */
+  private[akka] def contentTypeInfoFor(contentType: String): ContentTypeInfo = {
+    val cached = contentTypes.get(contentType)
+    if (cached ne null) cached
+    else {
+      val contentTypeInfo = new ContentTypeInfo(
+        contentType,
+        isJson = isJsonContentType(contentType),
+        binary = contentType.startsWith(CborContentTypePrefix),
+        typeName = removeVersion(stripJsonContentTypePrefix(contentType)),
+        typeUrl = removeVersion(replaceLegacyJsonPrefix(contentType)))
+      if (contentTypes.size < MaxCachedContentTypes) {
+        val existing = contentTypes.putIfAbsent(contentType, contentTypeInfo)
+        if (existing ne null) existing else contentTypeInfo
+      } else contentTypeInfo
+    }
   }
 
-  private def migrate[T](valueClass: Class[T], bytes: ByteString, fromVersion: Int, jsonMigration: JsonMigration): T = {
-    val jsonNode = objectMapper.readTree(bytes.toArrayUnsafe())
-    val newJsonNode = jsonMigration.transform(fromVersion, jsonNode)
-    objectMapper.treeToValue(newJsonNode, valueClass)
+  /**
+   * The type url to route a payload to a handler with, see `ContentTypeInfo.typeUrl`.
+   */
+  private[akka] def routingTypeUrl(contentType: String): String =
+    contentTypeInfoFor(contentType).typeUrl
+
+  private def decodePlanFor(contentTypeInfo: ContentTypeInfo, valueClass: Class[_]): DecodePlan = {
+    val cached = contentTypeInfo.lastDecodePlan
+    if ((cached ne null) && (cached.valueClass eq valueClass)) cached
+    else {
+      val plan = new DecodePlan(valueClass, lookupMigration(valueClass), codecFor(contentTypeInfo).readerFor(valueClass))
+      contentTypeInfo.lastDecodePlan = plan
+      plan
+    }
   }
 
-  private def parseBytes[T](valueType: Type, bytes: ByteString): T = {
-    val clazz = valueType match {
-      case c: Class[_]          => c
-      case p: ParameterizedType => p.getRawType.asInstanceOf[Class[_]]
+  private def decode(plan: DecodePlan, contentTypeInfo: ContentTypeInfo, bytes: ByteString): Any =
+    try {
+      plan.migration match {
+        case None =>
+          plan.reader.readValue[AnyRef](bytes.toArrayUnsafe())
+        case Some(migrationInfo) =>
+          val valueClass = plan.valueClass.asInstanceOf[Class[AnyRef]]
+          migrateIfNeeded(valueClass, bytes, contentTypeInfo, migrationInfo, codecFor(contentTypeInfo)) {
+            plan.reader.readValue[AnyRef](bytes.toArrayUnsafe())
+          }
+      }
+    } catch decodeFailure(plan.valueClass, contentTypeInfo.contentType)
+
+  private def migrateIfNeeded[T](
+      valueClass: Class[T],
+      bytes: ByteString,
+      contentTypeInfo: ContentTypeInfo,
+      migrationInfo: MigrationInfo,
+      codec: MapperCodec)(parseCurrentVersion: => T): T = {
+    val fromVersion = contentTypeInfo.version
+    val currentVersion = migrationInfo.currentVersion
+    val supportedForwardVersion = migrationInfo.supportedForwardVersion
+    if (fromVersion < currentVersion) {
+      migrate(valueClass, bytes, fromVersion, migrationInfo, codec)
+    } else if (fromVersion == currentVersion) {
+      parseCurrentVersion
+    } else if (fromVersion <= supportedForwardVersion) {
+      migrate(valueClass, bytes, fromVersion, migrationInfo, codec)
+    } else {
+      throw new IllegalStateException(
+        s"Migration version [$supportedForwardVersion] is " +
+        "behind version [$fromVersion] of deserialized type [${valueClass.getName}]")
     }
-    valueType match {
-      case p: ParameterizedType if classOf[java.util.Collection[_]].isAssignableFrom(clazz) =>
-        objectMapper
-          .readerForListOf(p.getActualTypeArguments.head.asInstanceOf[Class[_]])
-          .readValue(bytes.toArrayUnsafe())
-      case p: ParameterizedType if classOf[java.util.Optional[_]].isAssignableFrom(clazz) =>
-        Optional
-          .ofNullable(
-            objectMapper.readValue(bytes.toArrayUnsafe(), p.getActualTypeArguments.head.asInstanceOf[Class[_]]))
-          .asInstanceOf[T]
-      case p: ParameterizedType =>
-        // for other parameterized types we rely on jackson being able to handle it
-        objectMapper.readValue(bytes.toArrayUnsafe(), clazz).asInstanceOf[T]
-      case valueClass: Class[_] =>
-        objectMapper.readValue(bytes.toArrayUnsafe(), valueClass).asInstanceOf[T]
+  }
+
+  private def decodeFailure(valueClass: Class[_], contentType: String): Catcher[Nothing] = {
+    case e: JsonProcessingException =>
+      throw jsonProcessingException(valueClass, contentType, e)
+    case e @ (_: IOException | _: NoSuchMethodException | _: InstantiationException | _: IllegalAccessException |
+        _: InvocationTargetException) =>
+      throw genericDecodeException(valueClass, contentType, e)
+  }
+
+  private def migrate[T](
+      valueClass: Class[T],
+      bytes: ByteString,
+      fromVersion: Int,
+      migrationInfo: MigrationInfo,
+      codec: MapperCodec): T = {
+    // the JsonNode trees are the same regardless of the encoding
+    val fieldChanges = migrationInfo.fieldChanges(fromVersion, objectMapper)
+    if (migrationInfo.customTransform) {
+      val jsonNode = fieldChanges.applyToTree(codec.mapper.readTree(bytes.toArrayUnsafe()))
+      val newJsonNode = migrationInfo.migration.transform(fromVersion, jsonNode)
+      codec.mapper.treeToValue(newJsonNode, valueClass)
+    } else if (fieldChanges.isEmpty) {
+      // only a version bump, the payload can be read as is
+      parseBytes(valueClass, bytes, codec)
+    } else {
+      // only declarative field changes, applied while parsing without building a tree
+      val parser = codec.mapper.createParser(bytes.toArrayUnsafe())
+      try {
+        val migrated = fieldChanges.applyStreaming(parser, codec.mapper)
+        codec.readerFor(valueClass).readValue[T](migrated.asParser())
+      } finally {
+        parser.close()
+      }
     }
   }
 
+  private def parseBytes[T](valueType: Type, bytes: ByteString, codec: MapperCodec): T = {
+    val value: AnyRef = codec.readerFor(valueType).readValue(bytes.toArrayUnsafe())
+    if (isOptional(valueType)) Optional.ofNullable(value).asInstanceOf[T]
+    else value.asInstanceOf[T]
+  }
+
+  private def isOptional(valueType: Type): Boolean = valueType match {
+    case p: ParameterizedType => classOf[java.util.Optional[_]].isAssignableFrom(p.getRawType.asInstanceOf[Class[_]])
+    case _                    => false
+  }
+
+  private def codecFor(contentTypeInfo: ContentTypeInfo): MapperCodec =
+    if (contentTypeInfo.binary) cborCodec else jsonCodec
+
   private def jsonProcessingException[T](valueClass: Class[T], contentType: String, e: JsonProcessingException) =
     new IllegalArgumentException(
       s"JSON with contentType [$contentType] could not be decoded into a " +
@@ -279,11 +515,11 @@ final class JsonSerializer(val objectMapper: ObjectMapper) {
       s"into a [${valueClass.getName}]",
       e)
 
-  private def validateIsJson(bytesPayload: BytesPayload): Unit = {
-    if (!isJson(bytesPayload))
+  private def validateIsSdkEncoded(contentTypeInfo: ContentTypeInfo): Unit = {
+    if (!contentTypeInfo.isJson && !contentTypeInfo.binary)
       throw new IllegalArgumentException(
-        s"BytesPayload with contentTYpe [${bytesPayload.contentType}] " +
-        s"cannot be decoded as JSON, must start with [$JsonContentTypePrefix]")
+        s"BytesPayload with contentType [${contentTypeInfo.contentType}] " +
+        s"cannot be decoded, must start with [$JsonContentTypePrefix] or [$CborContentTypePrefix]")
   }
 
   def isJson(bytesPayload: BytesPayload): Boolean =
@@ -293,13 +529,29 @@ final class JsonSerializer(val objectMapper: ObjectMapper) {
     // check both new and old typeUrl for compatibility, in case there are services with old type url stored in database
     contentType.startsWith(JsonContentTypePrefix) || contentType.startsWith(KalixJsonContentTypePrefix)
 
+  /**
+   * JSON or the binary encoding of internal payloads, both can be decoded with `fromBytes`. Only for payloads that are
+   * only ever read by the SDK, like component client commands, use `isJson` for anything that must be UTF-8 JSON.
+   */
+  def isSdkEncoded(bytesPayload: BytesPayload): Boolean =
+    isSdkContentType(bytesPayload.contentType)
+
+  def isSdkContentType(contentType: String): Boolean =
+    isJsonContentType(contentType) || contentType.startsWith(CborContentTypePrefix)
+
+  // handlers are always looked up by JSON type url, regardless of legacy prefix or binary encoding
   private[akka] def replaceLegacyJsonPrefix(typeUrl: String): String =
     if (typeUrl.startsWith(KalixJsonContentTypePrefix))
       JsonContentTypePrefix + typeUrl.stripPrefix(KalixJsonContentTypePrefix)
+    else if (typeUrl.startsWith(CborContentTypePrefix))
+      JsonContentTypePrefix + typeUrl.stripPrefix(CborContentTypePrefix)
     else typeUrl
 
   def stripJsonContentTypePrefix(contentType: String): String =
-    contentType.stripPrefix(JsonContentTypePrefix).stripPrefix(KalixJsonContentTypePrefix)
+    contentType
+      .stripPrefix(JsonContentTypePrefix)
+      .stripPrefix(KalixJsonContentTypePrefix)
+      .stripPrefix(CborContentTypePrefix)
 
   private def lookupTypeHintWithVersion(value: Any): String =
     lookupTypeHint(value.getClass).currenTypeHintWithVersion
@@ -309,17 +561,25 @@ final class JsonSerializer(val objectMapper: ObjectMapper) {
   }
 
   private[akka] def registerTypeHints(clz: Class[_]): Unit = {
-    lookupTypeHint(clz)
+    registerType(clz)
     if (clz.getAnnotation(classOf[JsonSubTypes]) != null) {
       //registering all subtypes
       clz
         .getAnnotation(classOf[JsonSubTypes])
         .value()
         .map(_.value())
-        .foreach(lookupTypeHint)
+        .foreach(registerType)
     }
   }
 
+  // type hint plus pre-built reader and writer, so that the first message of a type doesn't pay for creating them
+  private def registerType(clz: Class[_]): Unit = {
+    lookupTypeHint(clz)
+    jsonCodec.readerFor(clz)
+    // values are always written with their concrete class
+    if (!clz.isInterface && !java.lang.reflect.Modifier.isAbstract(clz.getModifiers)) jsonCodec.writerFor(clz)
+  }
+
   private def computeTypeHint(clz: Class[_]): TypeHint = {
     if (clz.getName.contains("java.lang")) {
       val typeHint = if (clz.isAssignableFrom(classOf[String])) {
@@ -376,13 +636,31 @@ final class JsonSerializer(val objectMapper: ObjectMapper) {
   }
 
   private def getVersionAndSupportedClassNames(clz: Class[_]): (Int, List[String]) = {
+    lookupMigration(clz)
+      .map(migrationInfo => (migrationInfo.currentVersion, migrationInfo.supportedClassNames)) //TODO what about TypeName
+      .getOrElse((0, List.empty))
+  }
+
+  private def lookupMigration(clz: Class[_]): Option[MigrationInfo] = {
+    val cached = migrations.get(clz)
+    if (cached ne null) cached
+    else migrations.computeIfAbsent(clz, createMigrationInfo)
+  }
+
+  private def createMigrationInfo(clz: Class[_]): Option[MigrationInfo] = {
     import scala.jdk.CollectionConverters._
     Option(clz.getAnnotation(classOf[Migration]))
       .map(_.value())
       .map(migrationClass => migrationClass.getConstructor().newInstance())
       .map(migration =>
-        (migration.currentVersion(), migration.supportedClassNames().asScala.toList)) //TODO what about TypeName
-      .getOrElse((0, List.empty))
+        MigrationInfo(
+          migration,
+          migration.currentVersion(),
+          migration.supportedForwardVersion(),
+          migration.supportedClassNames().asScala.toList,
+          customTransform = migration.getClass
+            .getMethod("transform", classOf[Int], classOf[JsonNode])
+            .getDeclaringClass != classOf[JsonMigration]))
   }
 
   def contentTypeFor(clz: Class[_]): String =
@@ -436,6 +714,51 @@ final class JsonSerializer(val objectMapper: ObjectMapper) {
     }
   }
 
+  /**
+   * Encodes a view query parameter as a JSON object with the parameter as its only field, written directly with a
+   * generator rather than through a JSON tree. Numbers and booleans, also as elements of a collection, are kept as
+   * such, other collection elements are written as their string representation.
+   */
+  private[akka] def encodeQueryParameter(fieldName: SerializableString, value: Any): ByteString = {
+    val factory = objectMapper.getFactory
+    val builder = new ByteArrayBuilder()
+    try {
+      val generator = factory.createGenerator(builder, JsonEncoding.UTF8)
+      generator.writeStartObject()
+      generator.writeFieldName(fieldName)
+      value match {
+        case values: java.util.Collection[_] =>
+          generator.writeStartArray()
+          val iterator = values.iterator()
+          while (iterator.hasNext) writeQueryParameterValue(generator, iterator.next())
+          generator.writeEndArray()
+        case single => writeQueryParameterValue(generator, single)
+      }
+      generator.writeEndObject()
+      generator.close()
+      ByteString.fromArrayUnsafe(builder.toByteArray)
+    } catch {
+      case ex: IOException =>
+        throw new IllegalArgumentException("Could not encode query parameter as JSON", ex)
+    }
+  }
+
+  private def writeQueryParameterValue(generator: JsonGenerator, value: Any): Unit =
+    value match {
+      case null                    => generator.writeNull()
+      case v: String               => generator.writeString(v)
+      case v: java.lang.Boolean    => generator.writeBoolean(v)
+      case v: java.lang.Integer    => generator.writeNumber(v.intValue)
+      case v: java.lang.Long       => generator.writeNumber(v.longValue)
+      case v: java.lang.Short      => generator.writeNumber(v.shortValue)
+      case v: java.lang.Byte       => generator.writeNumber(v.intValue)
+      case v: java.lang.Double     => generator.writeNumber(v.doubleValue)
+      case v: java.lang.Float      => generator.writeNumber(v.floatValue)
+      case v: java.math.BigInteger => generator.writeNumber(v)
+      case v: java.math.BigDecimal => generator.writeNumber(v)
+      case other                   => generator.writeString(other.toString)
+    }
+
   private[akka] def encodeDynamicCollectionToAkkaByteString(key: String, values: java.util.Collection[_]): ByteString =
     try {
       val objectNode = objectMapper.createObjectNode
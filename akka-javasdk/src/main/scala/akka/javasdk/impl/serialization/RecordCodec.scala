@@ -0,0 +1,343 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.serialization
+
+import java.io.IOException
+import java.lang.annotation.Annotation
+import java.lang.reflect.AnnotatedElement
+import java.lang.reflect.Modifier
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+import scala.util.control.NonFatal
+
+import akka.annotation.InternalApi
+import com.fasterxml.jackson.annotation.JacksonAnnotation
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside
+import com.fasterxml.jackson.core.JsonGenerator
+import com.fasterxml.jackson.core.JsonParser
+import com.fasterxml.jackson.core.JsonToken
+import com.fasterxml.jackson.databind.DeserializationContext
+import com.fasterxml.jackson.databind.JavaType
+import com.fasterxml.jackson.databind.JsonDeserializer
+import com.fasterxml.jackson.databind.{ JsonSerializer => JacksonSerializer }
+import com.fasterxml.jackson.databind.SerializerProvider
+import com.fasterxml.jackson.databind.exc.MismatchedInputException
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer
+import com.fasterxml.jackson.databind.module.SimpleModule
+import com.fasterxml.jackson.databind.ser.std.StdSerializer
+import org.slf4j.LoggerFactory
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+object RecordCodec {
+
+  private val log = LoggerFactory.getLogger(classOf[RecordCodec[_]])
+
+  private final case class CachedSerializer(valueClass: Class[_], serializer: JacksonSerializer[AnyRef])
+
+  /**
+   * Load the codec classes generated by the annotation processor. Codecs that can't be loaded or no longer match their
+   * record, for example after an incremental compilation, are skipped and Jackson handles those records as usual.
+   */
+  def loadCodecClasses(classNames: Seq[String], classLoader: ClassLoader): Seq[Class[_ <: RecordCodec[_]]] =
+    classNames.distinct.flatMap { className =>
+      try {
+        val codecClass = Class.forName(className, false, classLoader).asSubclass(classOf[RecordCodec[_]])
+        val codec = codecClass.getDeclaredConstructor().newInstance()
+        if (codec.isUpToDate) Some(codecClass)
+        else {
+          log.debug("Ignoring generated codec [{}], it does not match [{}]", className, codec.recordClass.getName)
+          None
+        }
+      } catch {
+        case ex @ (NonFatal(_) | _: LinkageError) =>
+          log.debug("Ignoring generated codec [{}]: {}", className, ex.toString)
+          None
+      }
+    }
+
+  /**
+   * A module with new codec instances, the codecs cache serializers and deserializers so each mapper needs its own.
+   */
+  def module(codecClasses: Seq[Class[_ <: RecordCodec[_]]]): SimpleModule = {
+    val module = new SimpleModule("akka-javasdk-generated-codecs")
+    codecClasses.foreach(_.getDeclaredConstructor().newInstance().registerWith(module))
+    module
+  }
+
+  private def isJacksonAnnotation(annotation: Annotation): Boolean = {
+    val annotationType = annotation.annotationType()
+    annotationType.isAnnotationPresent(classOf[JacksonAnnotation]) ||
+    annotationType.isAnnotationPresent(classOf[JacksonAnnotationsInside]) ||
+    annotationType.getName.startsWith("com.fasterxml.jackson.") ||
+    annotationType.getName.startsWith("java.beans.")
+  }
+
+  private def hasJacksonAnnotations(element: AnnotatedElement): Boolean =
+    element.getAnnotations.exists(isJacksonAnnotation)
+
+  private def supertypes(clazz: Class[_]): Seq[Class[_]] =
+    if (clazz == null || clazz == classOf[Object] || clazz == classOf[java.lang.Record]) Seq.empty
+    else clazz +: (supertypes(clazz.getSuperclass) ++ clazz.getInterfaces.toSeq.flatMap(supertypes))
+
+  private def isGetter(method: java.lang.reflect.Method): Boolean = {
+    val name = method.getName
+    !Modifier.isStatic(method.getModifiers) && method.getParameterCount == 0 &&
+    ((name.length > 3 && name.startsWith("get") && method.getReturnType != Void.TYPE) ||
+    (name.length > 2 && name.startsWith("is") && method.getReturnType == java.lang.Boolean.TYPE))
+  }
+}
+
+/**
+ * INTERNAL API
+ *
+ * Base class for the record codecs generated by the annotation processor. The generated code reads and writes the
+ * record fields with the streaming API, values that are not primitives or strings are delegated to Jackson. Codecs are
+ * only generated, and used, for records where they produce the same JSON as Jackson would, see `isUpToDate`.
+ *
+ * @param fieldNames
+ *   the record component names, in declaration order
+ * @param fieldTypes
+ *   the erased record component types, in declaration order
+ */
+@InternalApi
+abstract class RecordCodec[T](val recordClass: Class[T], fieldNames: Array[String], fieldTypes: Array[Class[_]]) {
+  import RecordCodec._
+
+  private val components = recordClass.getRecordComponents
+  private val javaTypes = new AtomicReferenceArray[JavaType](fieldNames.length)
+  private val deserializers = new AtomicReferenceArray[JsonDeserializer[AnyRef]](fieldNames.length)
+  private val serializers = new AtomicReferenceArray[CachedSerializer](fieldNames.length)
+  // the type serializer is looked up once, None marks the absence of one
+  private val typeSerializers = new AtomicReferenceArray[Option[TypeSerializer]](fieldNames.length)
+
+  @throws(classOf[IOException])
+  def writeFields(value: T, gen: JsonGenerator, provider: SerializerProvider): Unit
+
+  /**
+   * Called with the parser on the `START_OBJECT` token, or on the first `FIELD_NAME` when used for polymorphic types.
+   */
+  @throws(classOf[IOException])
+  def readFields(p: JsonParser, ctxt: DeserializationContext): T
+
+  private[serialization] def isUpToDate: Boolean =
+    components != null &&
+    components.length == fieldNames.length &&
+    components.indices.forall(i =>
+      components(i).getName == fieldNames(i) && components(i).getType == fieldTypes(i) &&
+      !hasJacksonAnnotations(components(i)) && !hasJacksonAnnotations(components(i).getAccessor) &&
+      !hasJacksonAnnotations(recordClass.getDeclaredField(fieldNames(i)))) &&
+    !recordClass.getDeclaredConstructor(fieldTypes: _*).getParameters.exists(hasJacksonAnnotations) &&
+    !supertypes(recordClass).exists(hasJacksonAnnotations) && {
+      // jackson would also serialize getters that are not component accessors
+      val accessors = components.map(_.getName).toSet
+      !recordClass.getMethods.exists(m => isGetter(m) && !accessors.contains(m.getName) && m.getName != "getClass")
+    }
+
+  private[serialization] def registerWith(module: SimpleModule): Unit = {
+    module.addSerializer(recordClass, serializer)
+    module.addDeserializer(recordClass, deserializer)
+  }
+
+  private val serializer: JacksonSerializer[T] = new StdSerializer[T](recordClass) {
+    override def serialize(value: T, gen: JsonGenerator, provider: SerializerProvider): Unit = {
+      gen.writeStartObject(value)
+      writeFields(value, gen, provider)
+      gen.writeEndObject()
+    }
+
+    override def serializeWithType(
+        value: T,
+        gen: JsonGenerator,
+        provider: SerializerProvider,
+        typeSer: TypeSerializer): Unit = {
+      val typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(value, JsonToken.START_OBJECT))
+      writeFields(value, gen, provider)
+      typeSer.writeTypeSuffix(gen, typeId)
+    }
+  }
+
+  private val deserializer: JsonDeserializer[T] = new StdDeserializer[T](recordClass) {
+    override def deserialize(p: JsonParser, ctxt: DeserializationContext): T =
+      readFields(p, ctxt)
+
+    override def deserializeWithType(
+        p: JsonParser,
+        ctxt: DeserializationContext,
+        typeDeserializer: TypeDeserializer): AnyRef =
+      typeDeserializer.deserializeTypedFromObject(p, ctxt)
+  }
+
+  // field iteration, after returning a name the parser is positioned on the value
+
+  protected final def firstField(p: JsonParser): String =
+    p.currentToken() match {
+      case JsonToken.START_OBJECT => nextField(p)
+      case JsonToken.FIELD_NAME =>
+        val name = p.currentName()
+        p.nextToken()
+        name
+      case JsonToken.END_OBJECT => null
+      case other =>
+        throw MismatchedInputException.from(
+          p,
+          recordClass,
+          s"Cannot deserialize [${recordClass.getName}] from [$other], expected an object")
+    }
+
+  protected final def nextField(p: JsonParser): String = {
+    val name = p.nextFieldName()
+    if (name != null) {
+      p.nextToken()
+      name
+    } else if (p.currentToken() == JsonToken.END_OBJECT) null
+    else
+      throw MismatchedInputException.from(
+        p,
+        recordClass,
+        s"Unexpected [${p.currentToken()}] while deserializing [${recordClass.getName}]")
+  }
+
+  protected final def skipUnknownField(p: JsonParser, ctxt: DeserializationContext, name: String): Unit =
+    ctxt.handleUnknownProperty(p, deserializer, recordClass, name)
+
+  // readers, the fast paths match the tokens the Jackson deserializers take without any coercion
+
+  protected final def readString(p: JsonParser, ctxt: DeserializationContext, index: Int): String =
+    if (p.currentToken() == JsonToken.VALUE_STRING) p.getText
+    else readValue(p, ctxt, index).asInstanceOf[String]
+
+  protected final def readInt(p: JsonParser, ctxt: DeserializationContext, index: Int): Int =
+    if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) p.getIntValue
+    else readValue(p, ctxt, index).asInstanceOf[java.lang.Integer].intValue()
+
+  protected final def readLong(p: JsonParser, ctxt: DeserializationContext, index: Int): Long =
+    if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) p.getLongValue
+    else readValue(p, ctxt, index).asInstanceOf[java.lang.Long].longValue()
+
+  protected final def readDouble(p: JsonParser, ctxt: DeserializationContext, index: Int): Double = {
+    val token = p.currentToken()
+    if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) p.getDoubleValue
+    else readValue(p, ctxt, index).asInstanceOf[java.lang.Double].doubleValue()
+  }
+
+  protected final def readFloat(p: JsonParser, ctxt: DeserializationContext, index: Int): Float = {
+    val token = p.currentToken()
+    if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) p.getFloatValue
+    else readValue(p, ctxt, index).asInstanceOf[java.lang.Float].floatValue()
+  }
+
+  protected final def readBoolean(p: JsonParser, ctxt: DeserializationContext, index: Int): Boolean =
+    p.currentToken() match {
+      case JsonToken.VALUE_TRUE  => true
+      case JsonToken.VALUE_FALSE => false
+      case _                     => readValue(p, ctxt, index).asInstanceOf[java.lang.Boolean].booleanValue()
+    }
+
+  protected final def readValue(p: JsonParser, ctxt: DeserializationContext, index: Int): AnyRef = {
+    val deser = deserializerFor(ctxt, index)
+    if (p.currentToken() == JsonToken.VALUE_NULL) deser.getNullValue(ctxt)
+    else deser.deserialize(p, ctxt)
+  }
+
+  // values for fields missing in the payload, the same as Jackson uses for missing creator properties
+
+  protected final def absentValue(ctxt: DeserializationContext, index: Int): AnyRef =
+    deserializerFor(ctxt, index).getAbsentValue(ctxt)
+
+  protected final def absentInt(ctxt: DeserializationContext, index: Int): Int =
+    absentValue(ctxt, index) match {
+      case n: Number => n.intValue()
+      case _         => 0
+    }
+
+  protected final def absentLong(ctxt: DeserializationContext, index: Int): Long =
+    absentValue(ctxt, index) match {
+      case n: Number => n.longValue()
+      case _         => 0L
+    }
+
+  protected final def absentDouble(ctxt: DeserializationContext, index: Int): Double =
+    absentValue(ctxt, index) match {
+      case n: Number => n.doubleValue()
+      case _         => 0d
+    }
+
+  protected final def absentFloat(ctxt: DeserializationContext, index: Int): Float =
+    absentValue(ctxt, index) match {
+      case n: Number => n.floatValue()
+      case _         => 0f
+    }
+
+  protected final def absentBoolean(ctxt: DeserializationContext, index: Int): Boolean =
+    absentValue(ctxt, index) match {
+      case b: java.lang.Boolean => b.booleanValue()
+      case _                    => false
+    }
+
+  /**
+   * Write a field that is not a primitive or string, the serializer is picked by the runtime class of the value like
+   * for regular bean properties.
+   */
+  protected final def writeValue(gen: JsonGenerator, provider: SerializerProvider, index: Int, value: AnyRef): Unit = {
+    if (value == null) provider.defaultSerializeNull(gen)
+    else {
+      val ser = serializerFor(provider, index, value.getClass)
+      val typeSer = typeSerializerFor(provider, index)
+      if (typeSer eq null) ser.serialize(value, gen, provider)
+      else ser.serializeWithType(value, gen, provider, typeSer)
+    }
+  }
+
+  private def javaTypeFor(typeFactory: com.fasterxml.jackson.databind.`type`.TypeFactory, index: Int): JavaType = {
+    val cached = javaTypes.get(index)
+    if (cached ne null) cached
+    else {
+      val javaType = typeFactory.constructType(components(index).getGenericType)
+      javaTypes.set(index, javaType)
+      javaType
+    }
+  }
+
+  private def deserializerFor(ctxt: DeserializationContext, index: Int): JsonDeserializer[AnyRef] = {
+    val cached = deserializers.get(index)
+    if (cached ne null) cached
+    else {
+      // root value deserializers include the type deserializer for polymorphic types
+      val deser = ctxt.findRootValueDeserializer(javaTypeFor(ctxt.getTypeFactory, index))
+      deserializers.set(index, deser)
+      deser
+    }
+  }
+
+  private def serializerFor(provider: SerializerProvider, index: Int, valueClass: Class[_]): JacksonSerializer[AnyRef] = {
+    val cached = serializers.get(index)
+    if ((cached ne null) && (cached.valueClass eq valueClass)) cached.serializer
+    else {
+      val declaredType = javaTypeFor(provider.getTypeFactory, index)
+      val valueType =
+        if (declaredType.getRawClass eq valueClass) declaredType
+        else provider.getTypeFactory.constructSpecializedType(declaredType, valueClass)
+      // contextualized like the serializers of bean properties
+      val ser = provider.findPrimaryPropertySerializer(valueType, null)
+      serializers.set(index, CachedSerializer(valueClass, ser))
+      ser
+    }
+  }
+
+  private def typeSerializerFor(provider: SerializerProvider, index: Int): TypeSerializer = {
+    val cached = typeSerializers.get(index)
+    if (cached ne null) cached.orNull
+    else {
+      val typeSer = Option(provider.findTypeSerializer(javaTypeFor(provider.getTypeFactory, index)))
+      typeSerializers.set(index, typeSer)
+      typeSer.orNull
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.serialization
+
+import akka.annotation.InternalApi
+import akka.javasdk.JsonMigration.FieldChanges
+import com.fasterxml.jackson.core.JsonParser
+import com.fasterxml.jackson.core.JsonToken
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.node.NullNode
+import com.fasterxml.jackson.databind.node.ObjectNode
+import com.fasterxml.jackson.databind.util.TokenBuffer
+
+import scala.jdk.CollectionConverters._
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[serialization] object ResolvedFieldChanges {
+
+  def apply(fieldChanges: FieldChanges, objectMapper: ObjectMapper): ResolvedFieldChanges =
+    new ResolvedFieldChanges(
+      renamed = fieldChanges.renamed().asScala.toMap,
+      removed = fieldChanges.removed().asScala.toSet,
+      added = fieldChanges.added().asScala.toVector.map { case (name, value) =>
+        name -> (if (value == null) NullNode.getInstance else objectMapper.valueToTree[JsonNode](value))
+      })
+}
+
+/**
+ * INTERNAL API
+ *
+ * The field changes declared by a `JsonMigration` for one version, with the default values already converted to JSON.
+ */
+@InternalApi
+private[serialization] final class ResolvedFieldChanges(
+    renamed: Map[String, String],
+    removed: Set[String],
+    added: Vector[(String, JsonNode)]) {
+
+  def isEmpty: Boolean = renamed.isEmpty && removed.isEmpty && added.isEmpty
+
+  /**
+   * Copy the tokens of the parser to a token buffer while applying the field changes to the top level object. The
+   * buffer can then be read by a regular reader, no `JsonNode` tree is created for the payload.
+   */
+  def applyStreaming(parser: JsonParser, objectMapper: ObjectMapper): TokenBuffer = {
+    val buffer = new TokenBuffer(objectMapper, false)
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      // not an object, nothing to change
+      if (parser.currentToken() != null) buffer.copyCurrentStructure(parser)
+    } else {
+      val written = if (added.isEmpty) null else new java.util.HashSet[String]()
+      buffer.writeStartObject()
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        val name = parser.currentName()
+        parser.nextToken()
+        if (removed.contains(name)) {
+          parser.skipChildren()
+        } else {
+          val newName = renamed.getOrElse(name, name)
+          buffer.writeFieldName(newName)
+          buffer.copyCurrentStructure(parser)
+          if (written ne null) written.add(newName)
+        }
+      }
+      added.foreach { case (name, defaultValue) =>
+        if ((written eq null) || !written.contains(name)) {
+          buffer.writeFieldName(name)
+          buffer.writeTree(defaultValue)
+        }
+      }
+      buffer.writeEndObject()
+    }
+    buffer
+  }
+
+  /**
+   * Apply the field changes to an already parsed tree, for migrations that also have a custom transformation.
+   */
+  def applyToTree(json: JsonNode): JsonNode = json match {
+    case objectNode: ObjectNode =>
+      removed.foreach(name => objectNode.remove(name))
+      renamed.foreach { case (oldName, newName) =>
+        val value = objectNode.remove(oldName)
+        if (value ne null) objectNode.set[JsonNode](newName, value)
+      }
+      added.foreach { case (name, defaultValue) =>
+        if (!objectNode.has(name)) objectNode.set[JsonNode](name, defaultValue.deepCopy[JsonNode]())
+      }
+      objectNode
+    case other => other
+  }
+}
@@ -17,6 +17,7 @@ import akka.javasdk.impl.ComponentDescriptor
 import akka.javasdk.impl.ComponentType
 import akka.javasdk.impl.ErrorHandling
 import akka.javasdk.impl.MetadataImpl
+import akka.javasdk.impl.UserCodeExecutor
 import akka.javasdk.impl.serialization.JsonSerializer
 import akka.javasdk.impl.telemetry.SpanTracingImpl
 import akka.javasdk.impl.telemetry.Telemetry
@@ -86,7 +87,8 @@ private[impl] final class TimedActionImpl[TA <: TimedAction](
     tracerFactory: () => Tracer,
     jsonSerializer: JsonSerializer,
     regionInfo: RegionInfo,
-    componentDescriptor: ComponentDescriptor)
+    componentDescriptor: ComponentDescriptor,
+    userCodeExecutor: UserCodeExecutor)
     extends SpiTimedAction {
   import TimedActionImpl.CommandContextImpl
 
@@ -99,7 +101,10 @@ private[impl] final class TimedActionImpl[TA <: TimedAction](
   private def createRouter(): ReflectiveTimedActionRouter[TA] =
     new ReflectiveTimedActionRouter[TA](factory(), componentDescriptor.methodInvokers, jsonSerializer)
 
-  override def handleCommand(command: Command): Future[Effect] = {
+  override def handleCommand(command: Command): Future[Effect] =
+    userCodeExecutor.run(handle(command))
+
+  private def handle(command: Command): Future[Effect] = {
     val metadata = MetadataImpl.of(command.metadata)
 
     // FIXME would be good if we could record the chosen method in the span
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.view
+
+import akka.annotation.InternalApi
+import akka.javasdk.impl.MethodInvoker
+
+/**
+ * INTERNAL API
+ *
+ * Dispatch table from concrete event classes to the table updater handler for them, resolved the first time an event
+ * class is seen. The handler with the most specific parameter type that accepts the event is chosen, if several
+ * unrelated parameter types are equally specific, classes are preferred over interfaces and then the type name
+ * decides, so that the choice never depends on the order the handlers were declared or collected in.
+ */
+@InternalApi
+private[view] final class UpdateHandlerDispatch(handlers: Seq[MethodInvoker])
+    extends ClassValue[Option[MethodInvoker]] {
+
+  private val handlersByInput: Seq[(Class[_], MethodInvoker)] =
+    handlers.map(invoker => invoker.method.getParameterTypes.head -> invoker)
+
+  def handlerFor(eventClass: Class[_]): Option[MethodInvoker] = get(eventClass)
+
+  override protected def computeValue(eventClass: Class[_]): Option[MethodInvoker] = {
+    val candidates = handlersByInput.filter { case (inputClass, _) => inputClass.isAssignableFrom(eventClass) }
+    val mostSpecific = candidates.filterNot { case (inputClass, _) =>
+      candidates.exists { case (other, _) => (other ne inputClass) && inputClass.isAssignableFrom(other) }
+    }
+    mostSpecific
+      .sortBy { case (inputClass, _) => (inputClass.isInterface, inputClass.getName) }
+      .headOption
+      .map { case (_, invoker) => invoker }
+  }
+}
@@ -7,21 +7,26 @@ package akka.javasdk.impl.view
 import java.lang.reflect.Method
 import java.lang.reflect.ParameterizedType
 import java.util.Optional
+import java.util.concurrent.ConcurrentLinkedQueue
 
 import scala.concurrent.ExecutionContext
 import scala.concurrent.Future
 import scala.jdk.OptionConverters.RichOption
+import scala.util.Try
 import scala.util.control.NonFatal
 import scala.util.matching.Regex
 
 import akka.annotation.InternalApi
 import akka.javasdk.Metadata
 import akka.javasdk.annotations.Consume
+import akka.javasdk.annotations.NonBlocking
 import akka.javasdk.annotations.Query
+import akka.javasdk.annotations.Reusable
 import akka.javasdk.annotations.Table
 import akka.javasdk.impl.AbstractContext
 import akka.javasdk.impl.ComponentDescriptorFactory
 import akka.javasdk.impl.MetadataImpl
+import akka.javasdk.impl.MethodInvoker
 import akka.javasdk.impl.reflection.Reflect
 import akka.javasdk.impl.serialization.JsonSerializer
 import akka.javasdk.impl.telemetry.Telemetry
@@ -417,25 +422,41 @@ private[impl] object ViewDescriptorFactory {
 
     private val userLog = LoggerFactory.getLogger(tableUpdaterClass)
 
-    private val methodsByInput: Map[Class[_], Method] =
-      if (deleteHandler) Map.empty
-      else
-        methods.map { m =>
-          // register each possible input to deserialize correctly an input
-          val inputType = m.getParameterTypes.head
-          serializer.registerTypeHints(m.getParameterTypes.head)
+    private val invokers: Seq[MethodInvoker] = methods.map(MethodInvoker(_))
+
+    private val dispatch: UpdateHandlerDispatch =
+      if (deleteHandler) new UpdateHandlerDispatch(Seq.empty)
+      else {
+        // register each possible input to deserialize correctly an input
+        methods.foreach(m => serializer.registerTypeHints(m.getParameterTypes.head))
+        new UpdateHandlerDispatch(invokers)
+      }
 
-          inputType -> m
-        }.toMap
+    // Note: New instance for each update to avoid users storing/leaking state, unless the updater is declared
+    // reusable, then idle instances are kept here and used by one update at a time, with context and row state reset.
+    // There are never more of them than updates handled at the same time.
+    private val idleTableUpdaters: Option[ConcurrentLinkedQueue[TableUpdater[AnyRef]]] =
+      Option.when(tableUpdaterClass.isAnnotationPresent(classOf[Reusable]))(
+        new ConcurrentLinkedQueue[TableUpdater[AnyRef]]())
 
-    // Note: New instance for each update to avoid users storing/leaking state
-    private def tableUpdater(): TableUpdater[AnyRef] = {
+    private def newTableUpdater(): TableUpdater[AnyRef] =
       tableUpdaterClass.getDeclaredConstructor().newInstance().asInstanceOf[TableUpdater[AnyRef]]
-    }
 
-    override def handle(input: SpiTableUpdateEnvelope): Future[SpiTableUpdateEffect] = Future {
-      val existingState: Option[AnyRef] =
-        input.existingTableRow.map(bytes => serializer.fromBytes(tableUpdaterRowClass, bytes).asInstanceOf[AnyRef])
+    private def acquireTableUpdater(): TableUpdater[AnyRef] =
+      idleTableUpdaters.flatMap(idle => Option(idle.poll())).getOrElse(newTableUpdater())
+
+    private def releaseTableUpdater(tableUpdater: TableUpdater[AnyRef]): Unit =
+      idleTableUpdaters.foreach(_.offer(tableUpdater))
+
+    // non-blocking handlers run on the calling thread, completing the future before returning it
+    private val nonBlocking = tableUpdaterClass.isAnnotationPresent(classOf[NonBlocking])
+
+    // the runtime hands over one envelope per call, so updates for the same row can't be batched here
+    override def handle(input: SpiTableUpdateEnvelope): Future[SpiTableUpdateEffect] =
+      if (nonBlocking) Future.fromTry(Try(update(input)))
+      else Future(update(input))(userEc)
+
+    private def update(input: SpiTableUpdateEnvelope): SpiTableUpdateEffect = {
       val metadata = MetadataImpl.of(input.metadata)
       val addedToMDC = metadata.traceId match {
         case Some(traceId) =>
@@ -451,28 +472,33 @@ private[impl] object ViewDescriptorFactory {
           if (deleteHandler) null // no payload to deserialize
           else serializer.fromBytes(input.eventPayload)
 
-        val foundMethod: Option[Method] =
+        val foundHandler: Option[MethodInvoker] =
           if (deleteHandler) {
-            Some(methods.head) // only one delete handler
+            Some(invokers.head) // only one delete handler
           } else {
-            methodsByInput
-              .collectFirst { case (clazz, method) if clazz.isAssignableFrom(event.getClass) => method }
+            dispatch.handlerFor(event.getClass)
           }
 
         val effect: ViewEffectImpl.PrimaryEffect[Any] = {
-          foundMethod match {
-            case Some(method) =>
+          foundHandler match {
+            case Some(handler) =>
               val updateContext =
-                UpdateContextImpl(method.getName, metadata, regionInfo.selfRegion, input.originRegion.toJava)
-              val tableUpdaterInstance = tableUpdater()
+                UpdateContextImpl(handler.method.getName, metadata, regionInfo.selfRegion, input.originRegion.toJava)
+              val tableUpdaterInstance = acquireTableUpdater()
               try {
 
                 tableUpdaterInstance._internalSetUpdateContext(Optional.of(updateContext))
-                tableUpdaterInstance._internalSetViewState(existingState.getOrElse(tableUpdaterInstance.emptyRow()))
+                // the existing row is only decoded if the handler looks at it
+                tableUpdaterInstance._internalSetLazyViewState { () =>
+                  input.existingTableRow match {
+                    case Some(bytes) => serializer.fromBytes(tableUpdaterRowClass, bytes).asInstanceOf[AnyRef]
+                    case None        => tableUpdaterInstance.emptyRow()
+                  }
+                }
 
                 val result =
-                  if (deleteHandler) method.invoke(tableUpdaterInstance)
-                  else method.invoke(tableUpdaterInstance, event)
+                  if (deleteHandler) handler.invoke(tableUpdaterInstance)
+                  else handler.invokeDirectly(tableUpdaterInstance, event)
 
                 result match {
                   case effect: ViewEffectImpl.PrimaryEffect[Any @unchecked] => effect
@@ -487,6 +513,8 @@ private[impl] object ViewDescriptorFactory {
                   throw ViewException(componentId, s"View unexpected failure: ${error.getMessage}", Some(error))
               } finally {
                 tableUpdaterInstance._internalSetUpdateContext(Optional.empty())
+                tableUpdaterInstance._internalClearViewState()
+                releaseTableUpdater(tableUpdaterInstance)
               }
             case None if ignoreUnknown => ViewEffectImpl.Ignore
             case None                  =>
@@ -515,8 +543,7 @@ private[impl] object ViewDescriptorFactory {
       } finally {
         if (addedToMDC) MDC.remove(Telemetry.TRACE_ID)
       }
-
-    }(userEc)
+    }
   }
 
   private final case class UpdateContextImpl(
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.workflow
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.Promise
+import scala.util.Failure
+import scala.util.Success
+import scala.util.control.NonFatal
+
+import akka.annotation.InternalApi
+
+/**
+ * INTERNAL API
+ *
+ * Runs the calls of a parallel workflow step.
+ */
+@InternalApi
+private[workflow] object ParallelCalls {
+
+  /**
+   * Call `call` for each of the `inputs`, with at most `maxParallelism` calls in flight, retrying the call for one
+   * input at most `maxRetries` times. The results are in the same order as the inputs. Fails with the error of the
+   * first input that still failed after retrying, without starting calls for the inputs not started yet.
+   */
+  def callAll[I, O](inputs: IndexedSeq[I], maxParallelism: Int, maxRetries: Int)(call: I => Future[O])(implicit
+      ec: ExecutionContext): Future[IndexedSeq[O]] =
+    if (inputs.isEmpty) Future.successful(IndexedSeq.empty)
+    else {
+      val results = new Array[Any](inputs.size)
+      val nextIndex = new AtomicInteger(0)
+      val remaining = new AtomicInteger(inputs.size)
+      val done = Promise[IndexedSeq[O]]()
+
+      def callWithRetries(input: I, retriesLeft: Int): Future[O] = {
+        val result =
+          try call(input)
+          catch {
+            case NonFatal(ex) => Future.failed(ex)
+          }
+        if (retriesLeft == 0) result
+        else result.recoverWith { case NonFatal(_) => callWithRetries(input, retriesLeft - 1) }
+      }
+
+      // each worker calls for one input at a time, and takes the next one when done
+      def callNext(): Unit = {
+        val index = nextIndex.getAndIncrement()
+        if (index < inputs.size && !done.isCompleted) {
+          callWithRetries(inputs(index), maxRetries).onComplete {
+            case Success(output) =>
+              results(index) = output
+              if (remaining.decrementAndGet() == 0)
+                done.trySuccess(results.toIndexedSeq.asInstanceOf[IndexedSeq[O]])
+              else callNext()
+            case Failure(ex) =>
+              done.tryFailure(ex)
+          }
+        }
+      }
+
+      (0 until math.min(maxParallelism, inputs.size)).foreach(_ => callNext())
+      done.future
+    }
+}
@@ -5,12 +5,17 @@
 package akka.javasdk.impl.workflow
 
 import java.util.concurrent.CompletionStage
+import java.util.concurrent.atomic.AtomicReference
 import java.util.function.{ Function => JFunc }
 
 import scala.concurrent.ExecutionContext
 import scala.concurrent.Future
+import scala.jdk.CollectionConverters.ListHasAsScala
+import scala.jdk.CollectionConverters.SeqHasAsJava
 import scala.jdk.FutureConverters.CompletionStageOps
 import scala.jdk.OptionConverters.RichOptional
+import scala.util.Success
+import scala.util.control.NonFatal
 
 import akka.annotation.InternalApi
 import akka.javasdk.impl.MethodInvoker
@@ -24,7 +29,7 @@ import akka.javasdk.impl.workflow.ReflectiveWorkflowRouter.WorkflowStepNotSuppor
 import akka.javasdk.timer.TimerScheduler
 import akka.javasdk.workflow.CommandContext
 import akka.javasdk.workflow.Workflow
-import akka.javasdk.workflow.Workflow.{ AsyncCallStep, CallStep, RunnableStep }
+import akka.javasdk.workflow.Workflow.{ AsyncCallStep, CallStep, ParallelCallStep, RunnableStep }
 import akka.javasdk.workflow.Workflow.Effect.TransitionalEffect
 import akka.javasdk.workflow.WorkflowContext
 import akka.runtime.sdk.spi.BytesPayload
@@ -45,10 +50,27 @@ object ReflectiveWorkflowRouter {
   final case class WorkflowStepNotSupported(stepName: String) extends RuntimeException {
     override def getMessage: String = stepName
   }
+
+  /**
+   * A workflow instance together with the definition it built. The steps of the definition read the workflow state
+   * through the instance, so binding a new state to the instance is enough to use them again.
+   */
+  private final class DefinedWorkflow[S, W <: Workflow[S]](val workflow: W) {
+    lazy val definition: Workflow.WorkflowDef[S] = workflow.definition()
+  }
+
+  private final class DecodedState(val payload: BytesPayload, val state: Any) {
+    def isDecodedFrom(other: BytesPayload): Boolean =
+      (payload eq other) || (payload.bytes == other.bytes && payload.contentType == other.contentType)
+  }
 }
 
 /**
  * INTERNAL API
+ *
+ * Keeps one workflow instance and its definition for reuse by the following commands, steps and transitions, instead
+ * of creating a new instance and rebuilding the definition for each of them. The instance is only used by one of them
+ * at a time, while it is in use, for example by a step that has not completed yet, a new instance is created.
  */
 @InternalApi
 class ReflectiveWorkflowRouter[S, W <: Workflow[S]](
@@ -56,13 +78,62 @@ class ReflectiveWorkflowRouter[S, W <: Workflow[S]](
     instanceFactory: Function[WorkflowContext, W],
     methodInvokers: Map[String, MethodInvoker],
     serializer: JsonSerializer) {
+  import ReflectiveWorkflowRouter.DecodedState
+  import ReflectiveWorkflowRouter.DefinedWorkflow
+
+  // the last state encoded or decoded for this workflow, the runtime passes it back to the next command, step or
+  // transition, and comparing the bytes is much cheaper than decoding them again. Each handler takes the state out, so
+  // that two handlers never share the object. A handler ending with a new state puts that one back, and a step that
+  // completes puts its state back for its transition.
+  private val lastState = new AtomicReference[DecodedState]()
+
+  private val idleWorkflow = new AtomicReference[DefinedWorkflow[S, W]]()
+
+  private def acquireWorkflow(): DefinedWorkflow[S, W] = {
+    val idle = idleWorkflow.getAndSet(null)
+    if (idle ne null) idle
+    else new DefinedWorkflow[S, W](instanceFactory(workflowContext))
+  }
+
+  private def releaseWorkflow(definedWorkflow: DefinedWorkflow[S, W]): Unit = {
+    definedWorkflow.workflow._internalClear()
+    idleWorkflow.set(definedWorkflow)
+  }
+
+  private def withWorkflow[T](f: DefinedWorkflow[S, W] => T): T = {
+    val definedWorkflow = acquireWorkflow()
+    try f(definedWorkflow)
+    finally releaseWorkflow(definedWorkflow)
+  }
+
+  /**
+   * The definition of the workflow, for the configuration of the workflow
+   */
+  def definition: Workflow.WorkflowDef[S] =
+    withWorkflow(_.definition)
 
   private def decodeUserState(userState: Option[BytesPayload]): Option[S] =
     userState
       .collect {
-        case payload if payload.nonEmpty => serializer.fromBytes(payload).asInstanceOf[S]
+        case payload if payload.nonEmpty => decodeState(payload)
       }
 
+  private def decodeState(payload: BytesPayload): S =
+    takeState(payload).state.asInstanceOf[S]
+
+  private def takeState(payload: BytesPayload): DecodedState = {
+    val last = lastState.getAndSet(null)
+    if ((last ne null) && last.isDecodedFrom(payload)) last
+    else new DecodedState(payload, serializer.fromBytes(payload))
+  }
+
+  /**
+   * Remember the new state of the workflow, encoded for the runtime to store, so that it does not need to be decoded
+   * when it is passed back.
+   */
+  def stateEncoded(payload: BytesPayload, state: Any): Unit =
+    lastState.set(new DecodedState(payload, state))
+
   // in same cases, the runtime may send a message with contentType set to object.
   // if that's the case, we need to patch the message using the contentType from the expected input class
   private def decodeInput(result: BytesPayload, expectedInputClass: Class[_]) = {
@@ -75,14 +146,10 @@ class ReflectiveWorkflowRouter[S, W <: Workflow[S]](
     }
   }
 
-  private def methodInvokerLookup(commandName: String) =
+  private def methodInvokerLookup(workflow: W, commandName: String) =
     methodInvokers.getOrElse(
       commandName,
-      throw new HandlerNotFoundException(
-        "command",
-        commandName,
-        instanceFactory(workflowContext).getClass,
-        methodInvokers.keySet))
+      throw new HandlerNotFoundException("command", commandName, workflow.getClass, methodInvokers.keySet))
 
   final def handleCommand(
       userState: Option[SpiWorkflow.State],
@@ -90,17 +157,27 @@ class ReflectiveWorkflowRouter[S, W <: Workflow[S]](
       command: BytesPayload,
       context: CommandContext,
       timerScheduler: TimerScheduler,
-      deleted: Boolean): CommandResult = {
+      deleted: Boolean): CommandResult =
+    withWorkflow { definedWorkflow =>
+      handleCommand(definedWorkflow.workflow, userState, commandName, command, context, timerScheduler, deleted)
+    }
 
-    val workflow = instanceFactory(workflowContext)
+  private def handleCommand(
+      workflow: W,
+      userState: Option[SpiWorkflow.State],
+      commandName: String,
+      command: BytesPayload,
+      context: CommandContext,
+      timerScheduler: TimerScheduler,
+      deleted: Boolean): CommandResult = {
 
     // if runtime doesn't have a state to provide, we fall back to user's own defined empty state
     val decodedState = decodeUserState(userState).getOrElse(workflow.emptyState())
     workflow._internalSetup(decodedState, context, timerScheduler, deleted)
 
-    val methodInvoker = methodInvokerLookup(commandName)
+    val methodInvoker = methodInvokerLookup(workflow, commandName)
 
-    if (serializer.isJson(command) || command.isEmpty) {
+    if (serializer.isSdkEncoded(command) || command.isEmpty) {
       // - BytesPayload.empty - there is no real command, and we are calling a method with arity 0
       // - BytesPayload with json - we deserialize it and call the method
       val deserializedCommand =
@@ -125,11 +202,38 @@ class ReflectiveWorkflowRouter[S, W <: Workflow[S]](
       commandContext: CommandContext,
       executionContext: ExecutionContext): Future[BytesPayload] = {
 
-    implicit val ec: ExecutionContext = executionContext
+    // the step may still use the workflow after returning, so it is only released once the step has completed
+    val definedWorkflow = acquireWorkflow()
+    val result =
+      try {
+        val stepState = userState.filter(_.nonEmpty).map(takeState)
+        val decodedState = stepState.map(_.state.asInstanceOf[S])
+        val stepResult =
+          handleStep(definedWorkflow, decodedState, input, stepName, timerScheduler, commandContext)(executionContext)
+        // steps can't update the state, the runtime passes the same one to the transition following the step
+        stepResult.andThen { case Success(_) =>
+          stepState.foreach(lastState.compareAndSet(null, _))
+        }(ExecutionContext.parasitic)
+      } catch {
+        case NonFatal(ex) =>
+          releaseWorkflow(definedWorkflow)
+          throw ex
+      }
+    result.onComplete(_ => releaseWorkflow(definedWorkflow))(ExecutionContext.parasitic)
+    result
+  }
 
-    val workflow = instanceFactory(workflowContext)
+  private def handleStep(
+      definedWorkflow: DefinedWorkflow[S, W],
+      userState: Option[S],
+      input: Option[BytesPayload],
+      stepName: String,
+      timerScheduler: TimerScheduler,
+      commandContext: CommandContext)(implicit ec: ExecutionContext): Future[BytesPayload] = {
+
+    val workflow = definedWorkflow.workflow
     // if runtime doesn't have a state to provide, we fall back to user's own defined empty state
-    val decodedState = decodeUserState(userState).getOrElse(workflow.emptyState())
+    val decodedState = userState.getOrElse(workflow.emptyState())
     workflow._internalSetup(decodedState, commandContext, timerScheduler, false)
 
     def decodeInputForClass(inputClass: Class[_]): Any = input match {
@@ -137,17 +241,17 @@ class ReflectiveWorkflowRouter[S, W <: Workflow[S]](
       case None             => null // to meet a signature of supplier expressed as a function
     }
 
-    workflow.definition().findByName(stepName).toScala match {
+    definedWorkflow.definition.findByName(stepName).toScala match {
 
       case Some(call: RunnableStep) =>
-        Future { // sdkExecutionContext
+        Future { // sdkExecutionContext or a virtual thread
           call.runnable.run()
           BytesPayload.empty
         }
 
       case Some(call: CallStep[_, _, _]) =>
         val decodedInput = decodeInputForClass(call.callInputClass)
-        Future { // sdkExecutionContext
+        Future { // sdkExecutionContext or a virtual thread
           val output = call.callFunc
             .asInstanceOf[JFunc[Any, Any]]
             .apply(decodedInput)
@@ -165,14 +269,36 @@ class ReflectiveWorkflowRouter[S, W <: Workflow[S]](
 
         future.map(serializer.toBytes)
 
+      case Some(call: ParallelCallStep[_, _, _]) =>
+        val elements = input match {
+          case Some(inputValue) if inputValue.nonEmpty =>
+            serializer
+              .fromBytes(call.callInputClass.asInstanceOf[Class[Any]], classOf[java.util.List[Any]], inputValue)
+              .asScala
+              .toIndexedSeq
+          case _ => IndexedSeq.empty
+        }
+        val callFunc = call.callFunc.asInstanceOf[JFunc[Any, CompletionStage[Any]]]
+
+        ParallelCalls
+          .callAll(elements, call.maxParallelism, call.elementMaxRetries)(element => callFunc.apply(element).asScala)
+          .map(outputs => serializer.toBytes(new java.util.ArrayList[Any](outputs.asJava)))
+
       case Some(any) => Future.failed(WorkflowStepNotSupported(any.getClass.getSimpleName))
       case None      => Future.failed(WorkflowStepNotFound(stepName))
     }
   }
 
-  final def getNextStep(stepName: String, result: BytesPayload, userState: Option[BytesPayload]): TransitionalResult = {
+  final def getNextStep(stepName: String, result: BytesPayload, userState: Option[BytesPayload]): TransitionalResult =
+    withWorkflow(getNextStep(_, stepName, result, userState))
 
-    val workflow = instanceFactory(workflowContext)
+  private def getNextStep(
+      definedWorkflow: DefinedWorkflow[S, W],
+      stepName: String,
+      result: BytesPayload,
+      userState: Option[BytesPayload]): TransitionalResult = {
+
+    val workflow = definedWorkflow.workflow
 
     // if runtime doesn't have a state to provide, we fall back to user's own defined empty state
     val decodedState = decodeUserState(userState).getOrElse(workflow.emptyState())
@@ -194,7 +320,7 @@ class ReflectiveWorkflowRouter[S, W <: Workflow[S]](
       }
     }
 
-    workflow.definition().findByName(stepName).toScala match {
+    definedWorkflow.definition.findByName(stepName).toScala match {
       case Some(runnableStep: RunnableStep) =>
         val effect = runnableStep.transitionFunc.get()
         TransitionalResult(effect)
@@ -207,6 +333,14 @@ class ReflectiveWorkflowRouter[S, W <: Workflow[S]](
         val effect = applyTransitionFunc(call.transitionFunc, call.transitionInputClass)
         TransitionalResult(effect)
 
+      case Some(call: ParallelCallStep[_, _, _]) =>
+        val outputs =
+          serializer.fromBytes(call.transitionInputClass.asInstanceOf[Class[Any]], classOf[java.util.List[Any]], result)
+        val effect = call.transitionFunc
+          .asInstanceOf[JFunc[java.util.List[Any], TransitionalEffect[Any]]]
+          .apply(outputs)
+        TransitionalResult(effect)
+
       case Some(any) => throw WorkflowStepNotSupported(any.getClass.getSimpleName)
       case None      => throw WorkflowStepNotFound(stepName)
     }
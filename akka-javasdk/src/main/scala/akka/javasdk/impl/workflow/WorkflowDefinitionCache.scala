@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.workflow
+
+import scala.jdk.CollectionConverters.ListHasAsScala
+import scala.jdk.DurationConverters.JavaDurationOps
+import scala.jdk.OptionConverters.RichOptional
+
+import akka.annotation.InternalApi
+import akka.javasdk.impl.reflection.Reflect
+import akka.javasdk.impl.serialization.JsonSerializer
+import akka.javasdk.workflow.Workflow
+import akka.javasdk.workflow.Workflow.{ RecoverStrategy => SdkRecoverStrategy }
+import akka.runtime.sdk.spi.SpiWorkflow
+
+/**
+ * INTERNAL API
+ *
+ * What is derived from the definition of a workflow class, computed from the first definition seen and shared by all
+ * workflows of that class. The steps themselves are not shared since they capture the workflow instance that defined
+ * them, see [[ReflectiveWorkflowRouter]] for how those are kept per workflow.
+ */
+@InternalApi
+private[javasdk] final class WorkflowDefinitionCache(serializer: JsonSerializer) {
+
+  @volatile private var typeHintsRegistered = false
+  @volatile private var workflowConfig: SpiWorkflow.WorkflowConfig = _
+
+  def registerTypeHints[S](workflow: Workflow[S], definition: => Workflow.WorkflowDef[S]): Unit =
+    if (!typeHintsRegistered) synchronized {
+      if (!typeHintsRegistered) registerTypeHintsOnce(workflow, definition)
+    }
+
+  private def registerTypeHintsOnce[S](workflow: Workflow[S], definition: Workflow.WorkflowDef[S]): Unit = {
+    serializer.registerTypeHints(Reflect.workflowStateType[S, Workflow[S]](workflow))
+    definition.getSteps.asScala
+      .flatMap {
+        case asyncCallStep: Workflow.AsyncCallStep[_, _, _] =>
+          if (asyncCallStep.transitionInputClass == null) List(asyncCallStep.callInputClass)
+          else List(asyncCallStep.callInputClass, asyncCallStep.transitionInputClass)
+        case callStep: Workflow.CallStep[_, _, _] =>
+          if (callStep.transitionInputClass == null) List(callStep.callInputClass)
+          else List(callStep.callInputClass, callStep.transitionInputClass)
+        case parallelCallStep: Workflow.ParallelCallStep[_, _, _] =>
+          List(parallelCallStep.callInputClass, parallelCallStep.transitionInputClass)
+        case _ => List.empty
+      }
+      .foreach(serializer.registerTypeHints)
+    typeHintsRegistered = true
+  }
+
+  def configuration(definition: => Workflow.WorkflowDef[_]): SpiWorkflow.WorkflowConfig = {
+    // racing threads may compute it more than once, but always to the same config
+    if (workflowConfig eq null) workflowConfig = toWorkflowConfig(definition)
+    workflowConfig
+  }
+
+  private def toWorkflowConfig(definition: Workflow.WorkflowDef[_]): SpiWorkflow.WorkflowConfig = {
+
+    def toRecovery(sdkRecoverStrategy: SdkRecoverStrategy[_]): SpiWorkflow.RecoverStrategy = {
+
+      val stepTransition = new SpiWorkflow.StepTransition(
+        sdkRecoverStrategy.failoverStepName,
+        sdkRecoverStrategy.failoverStepInput.toScala.map(serializer.toBytes))
+      new SpiWorkflow.RecoverStrategy(sdkRecoverStrategy.maxRetries, failoverTo = stepTransition)
+    }
+
+    val stepConfigs =
+      definition.getStepConfigs.asScala.map { config =>
+        val stepTimeout = config.timeout.toScala.map(_.toScala)
+        val failoverRecoverStrategy = config.recoverStrategy.toScala.map(toRecovery)
+        (config.stepName, new SpiWorkflow.StepConfig(config.stepName, stepTimeout, failoverRecoverStrategy))
+      }.toMap
+
+    val defaultStepRecoverStrategy = definition.getStepRecoverStrategy.toScala.map(toRecovery)
+
+    val failoverRecoverStrategy = definition.getFailoverStepName.toScala.map(stepName =>
+      //when failoverStepName exists, maxRetries must exist
+      new SpiWorkflow.RecoverStrategy(
+        definition.getFailoverMaxRetries.toScala.get.maxRetries,
+        new SpiWorkflow.StepTransition(stepName, definition.getFailoverStepInput.toScala.map(serializer.toBytes))))
+
+    val stepTimeout = definition.getStepTimeout.toScala.map(_.toScala)
+
+    new SpiWorkflow.WorkflowConfig(
+      workflowTimeout = definition.getWorkflowTimeout.toScala.map(_.toScala),
+      failoverRecoverStrategy = failoverRecoverStrategy,
+      defaultStepTimeout = stepTimeout,
+      defaultStepRecoverStrategy = defaultStepRecoverStrategy,
+      stepConfigs = stepConfigs)
+  }
+}
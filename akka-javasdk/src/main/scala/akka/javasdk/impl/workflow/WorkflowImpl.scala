@@ -6,9 +6,6 @@ package akka.javasdk.impl.workflow
 
 import scala.concurrent.ExecutionContext
 import scala.concurrent.Future
-import scala.jdk.CollectionConverters.ListHasAsScala
-import scala.jdk.DurationConverters.JavaDurationOps
-import scala.jdk.OptionConverters.RichOptional
 import scala.util.Failure
 import scala.util.Success
 import scala.util.control.NonFatal
@@ -22,6 +19,7 @@ import akka.javasdk.impl.ComponentDescriptor
 import akka.javasdk.impl.ErrorHandling.BadRequestException
 import akka.javasdk.impl.HandlerNotFoundException
 import akka.javasdk.impl.MetadataImpl
+import akka.javasdk.impl.UserCodeExecutor
 import akka.javasdk.impl.WorkflowExceptions.WorkflowException
 import akka.javasdk.impl.serialization.JsonSerializer
 import akka.javasdk.impl.telemetry.SpanTracingImpl
@@ -44,7 +42,6 @@ import akka.javasdk.impl.workflow.WorkflowEffectImpl.TransitionalEffectImpl
 import akka.javasdk.impl.workflow.WorkflowEffectImpl.UpdateState
 import akka.javasdk.workflow.CommandContext
 import akka.javasdk.workflow.Workflow
-import akka.javasdk.workflow.Workflow.{ RecoverStrategy => SdkRecoverStrategy }
 import akka.javasdk.workflow.WorkflowContext
 import akka.runtime.sdk.spi.BytesPayload
 import akka.runtime.sdk.spi.RegionInfo
@@ -70,6 +67,8 @@ class WorkflowImpl[S, W <: Workflow[S]](
     sdkExecutionContext: ExecutionContext,
     tracerFactory: () => Tracer,
     regionInfo: RegionInfo,
+    definitionCache: WorkflowDefinitionCache,
+    userCodeExecutor: UserCodeExecutor,
     instanceFactory: Function[WorkflowContext, W])
     extends SpiWorkflow {
 
@@ -80,42 +79,9 @@ class WorkflowImpl[S, W <: Workflow[S]](
   private val router =
     new ReflectiveWorkflowRouter[S, W](context, instanceFactory, componentDescriptor.methodInvokers, serializer)
 
-  override def configuration: SpiWorkflow.WorkflowConfig = {
-    val workflow = instanceFactory(context)
-    val definition = workflow.definition()
-
-    def toRecovery(sdkRecoverStrategy: SdkRecoverStrategy[_]): SpiWorkflow.RecoverStrategy = {
-
-      val stepTransition = new SpiWorkflow.StepTransition(
-        sdkRecoverStrategy.failoverStepName,
-        sdkRecoverStrategy.failoverStepInput.toScala.map(serializer.toBytes))
-      new SpiWorkflow.RecoverStrategy(sdkRecoverStrategy.maxRetries, failoverTo = stepTransition)
-    }
-
-    val stepConfigs =
-      definition.getStepConfigs.asScala.map { config =>
-        val stepTimeout = config.timeout.toScala.map(_.toScala)
-        val failoverRecoverStrategy = config.recoverStrategy.toScala.map(toRecovery)
-        (config.stepName, new SpiWorkflow.StepConfig(config.stepName, stepTimeout, failoverRecoverStrategy))
-      }.toMap
-
-    val defaultStepRecoverStrategy = definition.getStepRecoverStrategy.toScala.map(toRecovery)
-
-    val failoverRecoverStrategy = definition.getFailoverStepName.toScala.map(stepName =>
-      //when failoverStepName exists, maxRetries must exist
-      new SpiWorkflow.RecoverStrategy(
-        definition.getFailoverMaxRetries.toScala.get.maxRetries,
-        new SpiWorkflow.StepTransition(stepName, definition.getFailoverStepInput.toScala.map(serializer.toBytes))))
-
-    val stepTimeout = definition.getStepTimeout.toScala.map(_.toScala)
-
-    new SpiWorkflow.WorkflowConfig(
-      workflowTimeout = definition.getWorkflowTimeout.toScala.map(_.toScala),
-      failoverRecoverStrategy = failoverRecoverStrategy,
-      defaultStepTimeout = stepTimeout,
-      defaultStepRecoverStrategy = defaultStepRecoverStrategy,
-      stepConfigs = stepConfigs)
-  }
+  // the configuration is the same for all workflows of the class, only built from the first one
+  override def configuration: SpiWorkflow.WorkflowConfig =
+    definitionCache.configuration(router.definition)
 
   private def commandContext(commandName: String, metadata: Metadata = MetadataImpl.Empty) =
     new CommandContextImpl(
@@ -139,7 +105,10 @@ class WorkflowImpl[S, W <: Workflow[S]](
 
   private def handleState(persistence: Persistence[Any]): SpiWorkflow.Persistence =
     persistence match {
-      case UpdateState(newState) => new SpiWorkflow.UpdateState(serializer.toBytes(newState))
+      case UpdateState(newState) =>
+        val encodedState = serializer.toBytes(newState)
+        router.stateEncoded(encodedState, newState)
+        new SpiWorkflow.UpdateState(encodedState)
       case DeleteState           => SpiWorkflow.DeleteState
       case NoPersistence         => SpiWorkflow.NoPersistence
     }
@@ -243,7 +212,7 @@ class WorkflowImpl[S, W <: Workflow[S]](
         stepName = stepName,
         timerScheduler = timerScheduler,
         commandContext = context,
-        executionContext = sdkExecutionContext)
+        executionContext = userCodeExecutor.executionContext)
       handleStep.onComplete {
         case Failure(exception) => log.error(s"Workflow [$workflowId], failed to execute step [$stepName]", exception)
         case Success(_)         =>
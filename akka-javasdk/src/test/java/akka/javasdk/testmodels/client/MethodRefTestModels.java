@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.testmodels.client;
+
+import akka.japi.function.Function;
+import akka.javasdk.keyvalueentity.KeyValueEntity;
+import akka.javasdk.testmodels.Number;
+import akka.javasdk.testmodels.keyvalueentity.Counter;
+
+/**
+ * Method references as the component client receives them, each method returns the same method reference call site.
+ */
+public class MethodRefTestModels {
+
+  public static class EntityWithoutComponentId extends KeyValueEntity<String> {
+    public Effect<String> get() {
+      return effects().reply(currentState());
+    }
+  }
+
+  public static Function<Counter, KeyValueEntity.Effect<Number>> counterGet() {
+    return Counter::get;
+  }
+
+  public static Function<EntityWithoutComponentId, KeyValueEntity.Effect<String>> withoutComponentIdGet() {
+    return EntityWithoutComponentId::get;
+  }
+}
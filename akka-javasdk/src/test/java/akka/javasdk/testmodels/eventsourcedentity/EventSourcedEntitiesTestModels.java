@@ -122,4 +122,56 @@ public class EventSourcedEntitiesTestModels {
             return null;
         }
     }
+
+    @ComponentId("ledger")
+    public static class LedgerEntity extends EventSourcedEntity<LedgerEntity.Ledger, LedgerEntity.LedgerEvent> {
+
+        // the sequence numbers seen by the event handler, in order
+        public record Ledger(int balance, List<Long> sequenceNumbers) {
+        }
+
+        public sealed interface LedgerEvent {
+            record Deposited(int amount) implements LedgerEvent {
+            }
+            record Withdrawn(int amount) implements LedgerEvent {
+            }
+        }
+
+        @Override
+        public Ledger emptyState() {
+            return new Ledger(0, List.of());
+        }
+
+        public Effect<Integer> deposit(Integer amount) {
+            return effects().persist(new LedgerEvent.Deposited(amount)).thenReply(Ledger::balance);
+        }
+
+        public Effect<Integer> withdraw(Integer amount) {
+            if (amount > currentState().balance()) return effects().error("Insufficient balance");
+            else return effects().persist(new LedgerEvent.Withdrawn(amount)).thenReply(Ledger::balance);
+        }
+
+        public Effect<Integer> close() {
+            return effects()
+                .persist(new LedgerEvent.Withdrawn(currentState().balance()))
+                .deleteEntity()
+                .thenReply(Ledger::balance);
+        }
+
+        public Effect<Integer> fail() {
+            throw new IllegalStateException("boom");
+        }
+
+        @Override
+        public Ledger applyEvent(LedgerEvent event) {
+            var sequenceNumbers = new java.util.ArrayList<>(currentState().sequenceNumbers());
+            sequenceNumbers.add(eventContext().sequenceNumber());
+            return switch (event) {
+                case LedgerEvent.Deposited deposited ->
+                    new Ledger(currentState().balance() + deposited.amount(), List.copyOf(sequenceNumbers));
+                case LedgerEvent.Withdrawn withdrawn ->
+                    new Ledger(currentState().balance() - withdrawn.amount(), List.copyOf(sequenceNumbers));
+            };
+        }
+    }
 }
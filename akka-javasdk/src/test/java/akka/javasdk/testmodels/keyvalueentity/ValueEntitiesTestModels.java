@@ -19,4 +19,22 @@ public class ValueEntitiesTestModels {
       return effects().reply(Done.instance);
     }
   }
+
+  @ComponentId("profile")
+  public static class ProfileEntity extends KeyValueEntity<ProfileEntity.Profile> {
+    public record Profile(String name) {}
+
+    @Override
+    public Profile emptyState() {
+      return new Profile("");
+    }
+
+    public KeyValueEntity.Effect<Done> setName(String name) {
+      return effects().updateState(new Profile(name)).thenReply(Done.instance);
+    }
+
+    public KeyValueEntity.Effect<Done> delete() {
+      return effects().deleteEntity().thenReply(Done.instance);
+    }
+  }
 }
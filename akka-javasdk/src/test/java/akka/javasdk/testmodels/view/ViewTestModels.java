@@ -10,6 +10,8 @@ import akka.javasdk.annotations.Consume;
 import akka.javasdk.annotations.DeleteHandler;
 import akka.javasdk.annotations.JWT;
 import akka.javasdk.annotations.Query;
+import akka.javasdk.annotations.Reusable;
+import akka.javasdk.annotations.Stateless;
 import akka.javasdk.annotations.Table;
 import akka.javasdk.view.View;
 import akka.javasdk.view.TableUpdater;
@@ -538,6 +540,56 @@ public class ViewTestModels {
   }
 
 
+  @ComponentId("users_view")
+  public static class ViewWithCachedStreamQuery extends View {
+
+    @Consume.FromKeyValueEntity(UserEntity.class)
+    public static class UsersTable extends TableUpdater<User> { }
+
+    @Query(value = "SELECT * AS users FROM users", cacheTtlMillis = 1000)
+    public QueryStreamEffect<User> getAllUsers() {
+      return queryStreamResult();
+    }
+  }
+
+  @ComponentId("users_view")
+  public static class ViewWithCachedQuery extends View {
+
+    @Consume.FromKeyValueEntity(UserEntity.class)
+    public static class UsersTable extends TableUpdater<User> { }
+
+    @Query(value = "SELECT * FROM users WHERE email = :email", cacheTtlMillis = 1000)
+    public QueryEffect<User> getUser(String email) {
+      return queryResult();
+    }
+  }
+
+  @ComponentId("users_view")
+  public static class ViewWithStatelessTableUpdater extends View {
+
+    @Stateless
+    @Consume.FromKeyValueEntity(UserEntity.class)
+    public static class UsersTable extends TableUpdater<User> { }
+
+    @Query("SELECT * FROM users WHERE email = :email")
+    public QueryEffect<User> getUser(String email) {
+      return queryResult();
+    }
+  }
+
+  @ComponentId("users_view")
+  public static class ViewWithReusableTableUpdater extends View {
+
+    @Reusable
+    @Consume.FromKeyValueEntity(UserEntity.class)
+    public static class UsersTable extends TableUpdater<User> { }
+
+    @Query("SELECT * FROM users WHERE email = :email")
+    public QueryEffect<User> getUser(String email) {
+      return queryResult();
+    }
+  }
+
   @ComponentId("users_view")
   public static class MultiTableViewValidation extends View {
     @Consume.FromKeyValueEntity(UserEntity.class)
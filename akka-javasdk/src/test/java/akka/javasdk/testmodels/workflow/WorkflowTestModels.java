@@ -9,6 +9,9 @@ import akka.javasdk.annotations.JWT;
 import akka.javasdk.annotations.ComponentId;
 import akka.javasdk.workflow.Workflow;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public class WorkflowTestModels {
 
   @ComponentId("transfer-workflow")
@@ -88,4 +91,24 @@ public class WorkflowTestModels {
       return null;
     }
   }
+
+  @ComponentId("parallel-reservation-workflow")
+  public static class ParallelReservationWorkflow extends Workflow<String> {
+    public record Item(String id, int quantity) {}
+    public record Reservation(String itemId, int reserved) {}
+
+    public volatile List<Reservation> reservations;
+
+    @Override
+    public WorkflowDef<String> definition() {
+      var reserve =
+          step("reserve")
+              .parallelCall(Item.class, item -> CompletableFuture.completedFuture(new Reservation(item.id(), item.quantity())))
+              .andThen(Reservation.class, results -> {
+                reservations = results;
+                return effects().end();
+              });
+      return workflow().addStep(reserve);
+    }
+  }
 }
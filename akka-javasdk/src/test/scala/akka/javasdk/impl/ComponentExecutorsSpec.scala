@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl
+
+import java.lang.management.ManagementFactory
+import java.util.concurrent.RejectedExecutionException
+import javax.management.ObjectName
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+
+import org.scalatest.concurrent.ScalaFutures
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class ComponentExecutorsSpec extends AnyWordSpec with Matchers with ScalaFutures {
+
+  private val sdkExecutionContext = ExecutionContext.global
+
+  private def threadName(executor: UserCodeExecutor): String =
+    executor.run(Future.successful(Thread.currentThread().getName)).futureValue
+
+  "The component executors" should {
+
+    "share the SDK execution context when no pools are configured" in {
+      val executors = new ComponentExecutors(sdkExecutionContext, virtualThreads = false, Map.empty, Map.empty)
+      executors.viewExecutionContext("my-view") shouldBe sdkExecutionContext
+      executors.userCodeExecutor(ComponentExecutors.ConsumerCategory, "my-consumer").executionContext shouldBe
+      sdkExecutionContext
+    }
+
+    "run the user code of a kind of component on its dedicated pool" in {
+      val executors = new ComponentExecutors(
+        sdkExecutionContext,
+        virtualThreads = false,
+        Map(ComponentExecutors.ConsumerCategory -> 2, ComponentExecutors.ViewCategory -> 0),
+        Map.empty)
+      threadName(executors.userCodeExecutor(ComponentExecutors.ConsumerCategory, "my-consumer")) should startWith(
+        "akka-javasdk-consumer-")
+      executors.viewExecutionContext("my-view") shouldBe sdkExecutionContext
+    }
+
+    "prefer the pool of a component over the pool of its kind" in {
+      val executors = new ComponentExecutors(
+        sdkExecutionContext,
+        virtualThreads = false,
+        Map(ComponentExecutors.ConsumerCategory -> 2),
+        Map("slow-consumer" -> 1))
+      threadName(executors.userCodeExecutor(ComponentExecutors.ConsumerCategory, "slow-consumer")) should startWith(
+        "akka-javasdk-slow-consumer-")
+      threadName(executors.userCodeExecutor(ComponentExecutors.ConsumerCategory, "other-consumer")) should startWith(
+        "akka-javasdk-consumer-")
+    }
+
+    "stop the virtual thread executor on shutdown" in {
+      val executors = new ComponentExecutors(sdkExecutionContext, virtualThreads = true, Map.empty, Map.empty)
+      val executor = executors.userCodeExecutor(ComponentExecutors.ConsumerCategory, "my-consumer")
+      executor.run(Future.successful(Thread.currentThread().isVirtual)).futureValue shouldBe true
+
+      executors.shutdown()
+
+      executor.run(Future.successful("ran")).failed.futureValue shouldBe a[RejectedExecutionException]
+    }
+
+    "expose the gauges of a dedicated pool" in {
+      val executors =
+        new ComponentExecutors(sdkExecutionContext, virtualThreads = false, Map.empty, Map("gauged-consumer" -> 3))
+      threadName(executors.userCodeExecutor(ComponentExecutors.ConsumerCategory, "gauged-consumer"))
+
+      val objectName = new ObjectName(
+        s"akka.javasdk:type=ComponentExecutor,scope=component,name=${ObjectName.quote("gauged-consumer")}")
+      val server = ManagementFactory.getPlatformMBeanServer
+      server.getAttribute(objectName, "QueueDepth") shouldBe 0
+      server.getAttribute(objectName, "PoolSize") shouldBe 1
+    }
+
+    "register a component pool and a kind of component pool with the same name separately" in {
+      // a component with the id of a kind of component
+      val executors = new ComponentExecutors(
+        sdkExecutionContext,
+        virtualThreads = false,
+        Map(ComponentExecutors.ConsumerCategory -> 1),
+        Map(ComponentExecutors.ConsumerCategory -> 2))
+      threadName(executors.userCodeExecutor(ComponentExecutors.ConsumerCategory, "other-consumer"))
+      threadName(executors.userCodeExecutor(ComponentExecutors.ConsumerCategory, ComponentExecutors.ConsumerCategory))
+
+      val server = ManagementFactory.getPlatformMBeanServer
+      def objectName(scope: String) = new ObjectName(
+        s"akka.javasdk:type=ComponentExecutor,scope=$scope,name=${ObjectName.quote(ComponentExecutors.ConsumerCategory)}")
+      server.isRegistered(objectName("category")) shouldBe true
+      server.isRegistered(objectName("component")) shouldBe true
+    }
+
+    "stop the dedicated pools on shutdown" in {
+      val executors =
+        new ComponentExecutors(sdkExecutionContext, virtualThreads = false, Map.empty, Map("stopped-consumer" -> 1))
+      threadName(executors.userCodeExecutor(ComponentExecutors.ConsumerCategory, "stopped-consumer"))
+
+      executors.shutdown()
+
+      val objectName = new ObjectName(
+        s"akka.javasdk:type=ComponentExecutor,scope=component,name=${ObjectName.quote("stopped-consumer")}")
+      ManagementFactory.getPlatformMBeanServer.isRegistered(objectName) shouldBe false
+    }
+  }
+}
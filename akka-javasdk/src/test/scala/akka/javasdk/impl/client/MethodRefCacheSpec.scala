@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.client
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.concurrent.ExecutionContext
+
+import akka.japi.function
+import akka.javasdk.eventsourcedentity.EventSourcedEntity
+import akka.javasdk.impl.serialization.JsonSerializer
+import akka.javasdk.testmodels.client.MethodRefTestModels
+import akka.javasdk.testmodels.keyvalueentity.Counter
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class MethodRefCacheSpec extends AnyWordSpec with Matchers {
+
+  private val serializer = new JsonSerializer
+
+  "The method ref cache" should {
+
+    "compute the value once per class of the lambda" in {
+      val computed = new AtomicInteger()
+      val cache = new MethodRefCache[String](10)
+
+      cache.getOrCompute("first")(s"value ${computed.incrementAndGet()}") shouldBe "value 1"
+      cache.getOrCompute("second")(s"value ${computed.incrementAndGet()}") shouldBe "value 1"
+      computed.get() shouldBe 1
+    }
+
+    "stop caching once it holds the maximum number of entries" in {
+      val computed = new AtomicInteger()
+      val cache = new MethodRefCache[String](1)
+      cache.getOrCompute("string")("cached")
+
+      cache.getOrCompute(Integer.valueOf(1))(s"value ${computed.incrementAndGet()}") shouldBe "value 1"
+      cache.getOrCompute(Integer.valueOf(2))(s"value ${computed.incrementAndGet()}") shouldBe "value 2"
+      cache.getOrCompute("other string")("not cached") shouldBe "cached"
+    }
+  }
+
+  "Resolving component method properties" should {
+
+    "return the cached properties for repeated resolution of one method reference" in {
+      val first = EntityClientImpl.resolveComponentMethodProperties(MethodRefTestModels.counterGet())
+      val second = EntityClientImpl.resolveComponentMethodProperties(MethodRefTestModels.counterGet())
+
+      second should be theSameInstanceAs first
+      first.declaringClass shouldBe classOf[Counter]
+      first.methodName shouldBe "Get"
+      first.componentId shouldBe "ve-counter"
+    }
+
+    "validate the component type before reading the component id" in {
+      val client = EventSourcedEntityClientImpl(null, serializer, None, "entity-1")(ExecutionContext.global, null)
+      val methodRef = MethodRefTestModels
+        .withoutComponentIdGet()
+        .asInstanceOf[function.Function[AnyRef, EventSourcedEntity.Effect[AnyRef]]]
+
+      // twice, the properties are cached after the first resolution
+      (1 to 2).foreach { _ =>
+        intercept[IllegalArgumentException] {
+          client.method(methodRef)
+        }.getMessage should include(s"is not a subclass of ${classOf[EventSourcedEntity[_, _]]}")
+      }
+    }
+
+    "keep failing to read a missing component id of a cached method reference" in {
+      val client = new KeyValueEntityClientImpl(null, serializer, None, "entity-1")(ExecutionContext.global, null)
+
+      (1 to 2).foreach { _ =>
+        intercept[IllegalArgumentException] {
+          client.method(MethodRefTestModels.withoutComponentIdGet())
+        }.getMessage should include("is missing akka.javasdk.annotations.ComponentId annotation")
+      }
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.client
+
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.concurrent.Future
+
+import akka.util.ByteString
+import org.scalatest.concurrent.ScalaFutures
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class ViewQueryCacheSpec extends AnyWordSpec with Matchers with ScalaFutures {
+
+  private val ttl = TimeUnit.MINUTES.toNanos(1)
+
+  private def argument(value: String) = ByteString(s"""{"email":"$value"}""")
+
+  "The view query cache" should {
+
+    "return the cached result for the same query and argument" in {
+      val cache = new ViewQueryCache(10)
+      val queries = new AtomicInteger()
+      def query(): Future[String] = Future.successful(s"result-${queries.incrementAndGet()}")
+
+      cache.getOrQuery("view", "getUser", "json", argument("a"), ttl)(query()).futureValue shouldBe "result-1"
+      cache.getOrQuery("view", "getUser", "json", argument("a"), ttl)(query()).futureValue shouldBe "result-1"
+      cache.getOrQuery("view", "getUser", "json", argument("b"), ttl)(query()).futureValue shouldBe "result-2"
+      cache.getOrQuery("view", "getOther", "json", argument("a"), ttl)(query()).futureValue shouldBe "result-3"
+
+      cache.statistics shouldBe ViewQueryCache.Statistics(hits = 1, misses = 3, evictions = 0, size = 3)
+      cache.getHits shouldBe 1
+      cache.getMisses shouldBe 3
+      cache.getSize shouldBe 3
+    }
+
+    "query again when the result has expired" in {
+      val cache = new ViewQueryCache(10)
+      val queries = new AtomicInteger()
+      def query(): Future[Int] = Future.successful(queries.incrementAndGet())
+
+      cache.getOrQuery("view", "getUser", "json", argument("a"), 0L)(query()).futureValue shouldBe 1
+      cache.getOrQuery("view", "getUser", "json", argument("a"), 0L)(query()).futureValue shouldBe 2
+
+      cache.statistics.evictions shouldBe 1
+    }
+
+    "not keep failed results" in {
+      val cache = new ViewQueryCache(10)
+      val failed = cache.getOrQuery("view", "getUser", "json", argument("a"), ttl)(
+        Future.failed[String](new RuntimeException("boom")))
+      failed.failed.futureValue.getMessage shouldBe "boom"
+
+      cache.getOrQuery("view", "getUser", "json", argument("a"), ttl)(Future.successful("ok")).futureValue shouldBe "ok"
+      cache.statistics.hits shouldBe 0
+    }
+
+    "stay within the max number of entries" in {
+      val cache = new ViewQueryCache(3)
+      (1 to 10).foreach { n =>
+        cache.getOrQuery("view", "getUser", "json", argument(n.toString), ttl)(Future.successful(n)).futureValue
+      }
+
+      cache.statistics.size shouldBe 3
+      cache.statistics.evictions shouldBe 7
+    }
+  }
+}
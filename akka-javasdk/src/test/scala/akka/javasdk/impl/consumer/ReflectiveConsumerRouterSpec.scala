@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.consumer
+
+import java.util.Optional
+
+import scala.concurrent.Future
+import scala.concurrent.duration.FiniteDuration
+
+import akka.Done
+import akka.javasdk.consumer.Consumer
+import akka.javasdk.consumer.MessageContext
+import akka.javasdk.consumer.MessageEnvelope
+import akka.javasdk.impl.ConsumerDescriptorFactory
+import akka.javasdk.impl.MetadataImpl
+import akka.javasdk.impl.serialization.JsonSerializer
+import akka.runtime.sdk.spi.DeferredRequest
+import akka.runtime.sdk.spi.TimerClient
+import io.opentelemetry.api.OpenTelemetry
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+object ReflectiveConsumerRouterSpec {
+
+  class ContextRecordingConsumer extends Consumer {
+    @volatile private var handled: List[MessageContext] = Nil
+
+    def onMessage(message: String): Consumer.Effect = {
+      handled = messageContext() :: handled
+      effects().done()
+    }
+
+    def handledContexts(): List[MessageContext] = handled.reverse
+
+    def contextOutsideOfHandler(): MessageContext = messageContext()
+  }
+}
+
+class ReflectiveConsumerRouterSpec extends AnyWordSpec with Matchers {
+  import ReflectiveConsumerRouterSpec._
+
+  private val serializer = new JsonSerializer
+  private val descriptor = ConsumerDescriptorFactory.buildDescriptorFor(classOf[ContextRecordingConsumer], serializer)
+  private val timerClient = new TimerClient {
+    // Not exercised here
+    override def startSingleTimer(
+        name: String,
+        delay: FiniteDuration,
+        maxRetries: Int,
+        deferredRequest: DeferredRequest): Future[Done] = ???
+    override def removeTimer(name: String): Future[Done] = ???
+  }
+
+  private def router(consumer: ContextRecordingConsumer, sharedInstance: Boolean) =
+    new ReflectiveConsumerRouter(
+      consumer,
+      descriptor.methodInvokers,
+      serializer,
+      serializer,
+      ignoreUnknown = false,
+      sharedInstance = sharedInstance)
+
+  private def messageContext(): MessageContextImpl =
+    new MessageContextImpl(
+      MetadataImpl.Empty,
+      timerClient,
+      () => OpenTelemetry.noop().getTracer("test"),
+      None,
+      "",
+      Optional.empty())
+
+  private def handle(
+      router: ReflectiveConsumerRouter[ContextRecordingConsumer],
+      context: MessageContext): Consumer.Effect =
+    router.handleCommand(MessageEnvelope.of(serializer.toBytes("hello"), context.metadata()), context)
+
+  "The consumer router" should {
+
+    "keep the message context of a per message instance after handling it" in {
+      val consumer = new ContextRecordingConsumer
+      val context = messageContext()
+
+      handle(router(consumer, sharedInstance = false), context) shouldBe ConsumerEffectImpl.ConsumedEffect
+
+      consumer.handledContexts() shouldBe List(context)
+      consumer.contextOutsideOfHandler() shouldBe context
+    }
+
+    "not look up the message context of the current thread for a per message instance" in {
+      val consumer = new ContextRecordingConsumer
+      val context = messageContext()
+      handle(router(consumer, sharedInstance = false), context)
+
+      Consumer._internalSetCurrentMessageContext(Optional.of(messageContext()))
+      try consumer.contextOutsideOfHandler() shouldBe context
+      finally Consumer._internalSetCurrentMessageContext(Optional.empty())
+    }
+
+    "pass the message context of each message to a shared instance only while handling it" in {
+      val consumer = new ContextRecordingConsumer
+      val sharedRouter = router(consumer, sharedInstance = true)
+      val context1 = messageContext()
+      val context2 = messageContext()
+
+      handle(sharedRouter, context1) shouldBe ConsumerEffectImpl.ConsumedEffect
+      handle(sharedRouter, context2) shouldBe ConsumerEffectImpl.ConsumedEffect
+
+      consumer.handledContexts() shouldBe List(context1, context2)
+      intercept[IllegalStateException] {
+        consumer.contextOutsideOfHandler()
+      }
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.eventsourcedentity
+
+import akka.javasdk.impl.eventsourcedentity.CommandBatch.BatchedCommand
+import akka.javasdk.impl.serialization.JsonSerializer
+import akka.runtime.sdk.spi.BytesPayload
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class CommandBatchSpec extends AnyWordSpec with Matchers {
+
+  private val serializer = new JsonSerializer
+
+  "A command batch" should {
+
+    "keep the names and payloads of the commands" in {
+      val commands = Vector(
+        BatchedCommand("Increase", serializer.toBytes(Integer.valueOf(10))),
+        BatchedCommand("Get", BytesPayload.empty))
+
+      val decoded = CommandBatch.decodeCommands(CommandBatch.encodeCommands(commands))
+
+      decoded.map(_.name) shouldBe Vector("Increase", "Get")
+      decoded.map(_.payload.contentType) shouldBe commands.map(_.payload.contentType)
+      decoded.map(_.payload.bytes) shouldBe commands.map(_.payload.bytes)
+    }
+
+    "embed the payloads without encoding them as text" in {
+      val payload = serializer.toBytes("x" * 3000)
+      val encoded = CommandBatch.encodeCommands(Vector(BatchedCommand("Set", payload)))
+
+      encoded.contentType shouldBe CommandBatch.ContentType
+      encoded.bytes.size should be < payload.bytes.size + 100
+    }
+
+    "keep the replies and errors in order" in {
+      val reply = serializer.toBytes("ok")
+      val replies = Vector(Right(reply), Left("Value must be greater than 0"))
+
+      val decoded = CommandBatch.decodeReplies(CommandBatch.encodeReplies(replies))
+
+      decoded(0).map(_.bytes) shouldBe Right(reply.bytes)
+      decoded(0).map(_.contentType) shouldBe Right(reply.contentType)
+      decoded(1) shouldBe Left("Value must be greater than 0")
+    }
+  }
+}
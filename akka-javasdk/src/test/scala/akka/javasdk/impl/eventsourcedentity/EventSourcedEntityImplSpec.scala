@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.eventsourcedentity
+
+import scala.jdk.CollectionConverters._
+
+import akka.javasdk.impl.ComponentDescriptor
+import akka.javasdk.impl.EntityExceptions.EntityException
+import akka.javasdk.impl.MetadataImpl
+import akka.javasdk.impl.serialization.JsonSerializer
+import akka.javasdk.testmodels.eventsourcedentity.EventSourcedEntitiesTestModels.LedgerEntity
+import akka.javasdk.testmodels.eventsourcedentity.EventSourcedEntitiesTestModels.LedgerEntity.Ledger
+import akka.javasdk.testmodels.eventsourcedentity.EventSourcedEntitiesTestModels.LedgerEntity.LedgerEvent
+import akka.runtime.sdk.spi.BytesPayload
+import akka.runtime.sdk.spi.RegionInfo
+import akka.runtime.sdk.spi.SpiEventSourcedEntity
+import io.opentelemetry.api.OpenTelemetry
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class EventSourcedEntityImplSpec extends AnyWordSpec with Matchers {
+
+  private val serializer = new JsonSerializer
+
+  private def createEntity() =
+    new EventSourcedEntityImpl[Ledger, LedgerEvent, LedgerEntity](
+      () => OpenTelemetry.noop().getTracer("test"),
+      "ledger",
+      "ledger-1",
+      serializer,
+      ComponentDescriptor.descriptorFor(classOf[LedgerEntity], serializer),
+      classOf[Ledger],
+      new RegionInfo(""),
+      ReplayCostThresholds.NoLimits,
+      _ => new LedgerEntity)
+
+  private val journal = (1 to 5).map(amount => serializer.toInternalBytes(new LedgerEvent.Deposited(amount)))
+
+  private def sequenceNumbers(state: SpiEventSourcedEntity.State): Seq[Long] =
+    state.asInstanceOf[Ledger].sequenceNumbers().asScala.map(_.longValue).toSeq
+
+  private def replay(
+      entity: EventSourcedEntityImpl[Ledger, LedgerEvent, LedgerEntity],
+      state: SpiEventSourcedEntity.State,
+      fromSequenceNumber: Long,
+      events: Seq[BytesPayload]): SpiEventSourcedEntity.State =
+    events.zipWithIndex.foldLeft(state) { case (current, (payload, index)) =>
+      entity.handleEvent(current, fromSequenceNumber + index, payload)
+    }
+
+  "The event sourced entity" should {
+
+    "replay events to the same state as applying them after commands" in {
+      val entity = createEntity()
+      val replayed = replay(entity, entity.emptyState, 1L, journal)
+      val applied = journal.zipWithIndex.foldLeft(entity.emptyState) { case (state, (payload, index)) =>
+        entity.entityHandleEvent(state, serializer.fromBytes(payload), index + 1L)
+      }
+
+      replayed shouldBe applied
+      replayed.asInstanceOf[Ledger].balance() shouldBe 15
+      sequenceNumbers(replayed) shouldBe Seq(1L, 2L, 3L, 4L, 5L)
+    }
+
+    "replay events starting after a snapshot with the sequence numbers of the journal" in {
+      val entity = createEntity()
+      val snapshot = new Ledger(100, java.util.List.of[java.lang.Long](10L))
+      val replayed = replay(entity, snapshot, 11L, journal)
+
+      replayed.asInstanceOf[Ledger].balance() shouldBe 115
+      sequenceNumbers(replayed) shouldBe Seq(10L, 11L, 12L, 13L, 14L, 15L)
+    }
+  }
+
+  "The event sourced entity handling a command batch" should {
+
+    def command(name: String, amount: Int) =
+      CommandBatch.BatchedCommand(name, serializer.toBytes(Integer.valueOf(amount)))
+
+    def handleBatch(
+        entity: EventSourcedEntityImpl[Ledger, LedgerEvent, LedgerEntity],
+        state: SpiEventSourcedEntity.State,
+        commands: CommandBatch.BatchedCommand*) =
+      entity.handleCommandBatch(state, commands, 5L, isDeleted = false, MetadataImpl.Empty, None)
+
+    def replies(result: EventSourcedEntityImpl.CommandBatchResult): Seq[Either[String, Int]] =
+      result.replies.map(_.map(reply => serializer.fromBytes(classOf[Integer], reply).intValue))
+
+    "handle each command against the state and sequence number left by the previous ones" in {
+      val entity = createEntity()
+      val result = handleBatch(entity, entity.emptyState, command("Deposit", 10), command("Deposit", 5))
+
+      replies(result) shouldBe Seq(Right(10), Right(15))
+      result.events should have size 2
+      result.state.asInstanceOf[Ledger].balance() shouldBe 15
+      sequenceNumbers(result.state) shouldBe Seq(5L, 6L)
+      result.deleteEntity shouldBe false
+
+      // the events replay to the same state
+      replay(entity, entity.emptyState, 5L, result.events) shouldBe result.state
+    }
+
+    "not let a command replying with an error affect the others" in {
+      val entity = createEntity()
+      val result = handleBatch(
+        entity,
+        entity.emptyState,
+        command("Deposit", 10),
+        command("Withdraw", 100),
+        command("Withdraw", 3))
+
+      replies(result) shouldBe Seq(Right(10), Left("Insufficient balance"), Right(7))
+      result.events should have size 2
+      result.state.asInstanceOf[Ledger].balance() shouldBe 7
+      sequenceNumbers(result.state) shouldBe Seq(5L, 6L)
+    }
+
+    "delete the entity if one of the commands deletes it" in {
+      val entity = createEntity()
+      val result = handleBatch(
+        entity,
+        entity.emptyState,
+        command("Deposit", 10),
+        CommandBatch.BatchedCommand("Close", BytesPayload.empty))
+
+      replies(result) shouldBe Seq(Right(10), Right(0))
+      result.events should have size 2
+      result.deleteEntity shouldBe true
+    }
+
+    "fail the whole batch when a command handler throws" in {
+      val entity = createEntity()
+      val failure = intercept[EntityException] {
+        handleBatch(
+          entity,
+          entity.emptyState,
+          command("Deposit", 10),
+          CommandBatch.BatchedCommand("Fail", BytesPayload.empty))
+      }
+      failure.commandName shouldBe "Fail"
+      failure.getMessage should startWith("Unexpected failure")
+    }
+
+    "fail the whole batch for an unknown command" in {
+      val entity = createEntity()
+      val failure = intercept[EntityException] {
+        handleBatch(entity, entity.emptyState, command("Deposit", 10), command("Unknown", 1))
+      }
+      failure.commandName shouldBe "Unknown"
+    }
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.eventsourcedentity
+
+import scala.concurrent.duration._
+
+import com.typesafe.config.ConfigFactory
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class ReplayCostSpec extends AnyWordSpec with Matchers {
+
+  "The replay cost of an event sourced entity" should {
+
+    "read the default and per component thresholds from config" in {
+      val thresholds = ReplayCostThresholds.fromConfig(ConfigFactory.parseString("""
+          events = 0
+          bytes = 1 MiB
+          duration = 500 ms
+          components {
+            "shopping-cart" { bytes = 1 KiB }
+          }
+          """))
+      thresholds("") shouldBe ReplayCostThresholds(0, 1024 * 1024, 500.millis)
+      thresholds("shopping-cart") shouldBe ReplayCostThresholds(0, 1024, 500.millis)
+    }
+
+    "have no thresholds by default" in {
+      val thresholds = ReplayCostThresholds.fromConfig(
+        ConfigFactory.load().getConfig("akka.javasdk.event-sourced-entity.replay-cost-warning"))
+      thresholds("") shouldBe ReplayCostThresholds.NoLimits
+    }
+
+    "only be exceeded by the limits that are set" in {
+      val thresholds = ReplayCostThresholds(events = 0, bytes = 1000, duration = Duration.Zero)
+      thresholds.isExceededBy(1000000, replayedBytes = 1000, replayNanos = 10.seconds.toNanos) shouldBe false
+      thresholds.isExceededBy(replayedEvents = 1, replayedBytes = 1001, replayNanos = 0) shouldBe true
+      ReplayCostThresholds.NoLimits.isExceededBy(Long.MaxValue, Long.MaxValue, Long.MaxValue) shouldBe false
+    }
+
+    "check the recovery once, on the first command" in {
+      val replayCost = new ReplayCost(ReplayCostThresholds(events = 2, bytes = 0, duration = Duration.Zero))
+      replayCost.replayed(1, 100, 0)
+      replayCost.replayed(2, 200, 1000)
+      replayCost.recoveryCompleted() shouldBe true
+      replayCost.events shouldBe 3
+      replayCost.bytes shouldBe 300
+      replayCost.recoveryCompleted() shouldBe false
+    }
+  }
+}
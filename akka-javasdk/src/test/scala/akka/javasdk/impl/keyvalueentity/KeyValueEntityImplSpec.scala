@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.keyvalueentity
+
+import akka.javasdk.impl.ComponentDescriptor
+import akka.javasdk.impl.MetadataImpl
+import akka.javasdk.impl.Settings
+import akka.javasdk.impl.serialization.JsonSerializer
+import akka.javasdk.testmodels.keyvalueentity.ValueEntitiesTestModels.ProfileEntity
+import akka.javasdk.testmodels.keyvalueentity.ValueEntitiesTestModels.ProfileEntity.Profile
+import akka.runtime.sdk.spi.BytesPayload
+import akka.runtime.sdk.spi.RegionInfo
+import akka.runtime.sdk.spi.SpiEventSourcedEntity
+import com.typesafe.config.ConfigFactory
+import io.opentelemetry.api.OpenTelemetry
+import org.scalatest.concurrent.ScalaFutures
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class KeyValueEntityImplSpec extends AnyWordSpec with Matchers with ScalaFutures {
+
+  private val serializer = new JsonSerializer
+  private val settings = Settings(ConfigFactory.load().getConfig("akka.javasdk"))
+
+  private def createEntity(counters: Option[KeyValueEntityCounters]) =
+    new KeyValueEntityImpl[Profile, ProfileEntity](
+      settings,
+      () => OpenTelemetry.noop().getTracer("test"),
+      "profile",
+      "profile-1",
+      serializer,
+      ComponentDescriptor.descriptorFor(classOf[ProfileEntity], serializer),
+      classOf[Profile],
+      new RegionInfo(""),
+      counters,
+      _ => new ProfileEntity)
+
+  private def setName(
+      entity: KeyValueEntityImpl[Profile, ProfileEntity],
+      state: Profile,
+      name: String,
+      isDeleted: Boolean = false): SpiEventSourcedEntity.Effect =
+    entity.handleCommand(state, "SetName", serializer.toBytes(name), MetadataImpl.Empty, isDeleted, None).futureValue
+
+  private def delete(entity: KeyValueEntityImpl[Profile, ProfileEntity], state: Profile): SpiEventSourcedEntity.Effect =
+    entity.handleCommand(state, "Delete", BytesPayload.empty, MetadataImpl.Empty, isDeleted = false, None).futureValue
+
+  "The key value entity skipping unchanged updates" should {
+
+    "reply without persisting an update to the last persisted state" in {
+      val counters = new KeyValueEntityCounters
+      val entity = createEntity(Some(counters))
+
+      setName(entity, new Profile(""), "alice") shouldBe a[SpiEventSourcedEntity.PersistEffect]
+      setName(entity, new Profile("alice"), "alice") shouldBe a[SpiEventSourcedEntity.ReplyEffect]
+      counters.getSkippedUnchangedUpdates shouldBe 1
+    }
+
+    "persist an update that changes the state" in {
+      val counters = new KeyValueEntityCounters
+      val entity = createEntity(Some(counters))
+
+      setName(entity, new Profile(""), "alice") shouldBe a[SpiEventSourcedEntity.PersistEffect]
+      setName(entity, new Profile("alice"), "bob") shouldBe a[SpiEventSourcedEntity.PersistEffect]
+      setName(entity, new Profile("bob"), "alice") shouldBe a[SpiEventSourcedEntity.PersistEffect]
+      counters.getSkippedUnchangedUpdates shouldBe 0
+    }
+
+    "persist the first update after the entity was deleted" in {
+      val counters = new KeyValueEntityCounters
+      val entity = createEntity(Some(counters))
+
+      setName(entity, new Profile(""), "alice") shouldBe a[SpiEventSourcedEntity.PersistEffect]
+      delete(entity, new Profile("alice")) shouldBe a[SpiEventSourcedEntity.PersistEffect]
+      setName(entity, new Profile(""), "alice") shouldBe a[SpiEventSourcedEntity.PersistEffect]
+      // the runtime passes the deleted flag for an entity deleted before this instance was started
+      setName(entity, new Profile("alice"), "alice", isDeleted = true) shouldBe a[SpiEventSourcedEntity.PersistEffect]
+      counters.getSkippedUnchangedUpdates shouldBe 0
+    }
+
+    "compare with the state loaded from storage" in {
+      val counters = new KeyValueEntityCounters
+      val entity = createEntity(Some(counters))
+      val stored = serializer.toBytes(new Profile("alice"))
+
+      val loaded = entity.stateFromBytes(stored).asInstanceOf[Profile]
+      setName(entity, loaded, "alice") shouldBe a[SpiEventSourcedEntity.ReplyEffect]
+      counters.getSkippedUnchangedUpdates shouldBe 1
+    }
+
+    "compare with the state loaded from storage as it is encoded now" in {
+      val counters = new KeyValueEntityCounters
+      val entity = createEntity(Some(counters))
+      val current = serializer.toBytes(new Profile("alice"))
+      // written by an earlier version of the SDK
+      val legacy = new BytesPayload(
+        bytes = current.bytes,
+        contentType = current.contentType.replace(JsonSerializer.JsonContentTypePrefix, "json.kalix.io/"))
+
+      val loaded = entity.stateFromBytes(legacy).asInstanceOf[Profile]
+      setName(entity, loaded, "alice") shouldBe a[SpiEventSourcedEntity.ReplyEffect]
+      counters.getSkippedUnchangedUpdates shouldBe 1
+    }
+  }
+
+  "The key value entity not skipping unchanged updates" should {
+
+    "always persist updates" in {
+      val entity = createEntity(None)
+
+      setName(entity, new Profile(""), "alice") shouldBe a[SpiEventSourcedEntity.PersistEffect]
+      setName(entity, new Profile("alice"), "alice") shouldBe a[SpiEventSourcedEntity.PersistEffect]
+    }
+  }
+}
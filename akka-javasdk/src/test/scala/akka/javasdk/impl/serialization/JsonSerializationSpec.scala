@@ -6,6 +6,7 @@ package akka.javasdk.impl.serialization
 
 import java.util
 import java.util.Optional
+import java.util.concurrent.atomic.AtomicInteger
 import scala.beans.BeanProperty
 import akka.Done
 import akka.javasdk.DummyClass
@@ -16,6 +17,10 @@ import akka.javasdk.annotations.Migration
 import akka.javasdk.annotations.TypeName
 import akka.javasdk.impl.serialization
 import akka.javasdk.impl.serialization.JsonSerializationSpec.Cat
+import akka.javasdk.impl.serialization.JsonSerializationSpec.ClassWithCountingMigration
+import akka.javasdk.impl.serialization.JsonSerializationSpec.ClassWithFieldChanges
+import akka.javasdk.impl.serialization.JsonSerializationSpec.ClassWithFieldChangesAndTransform
+import akka.javasdk.impl.serialization.JsonSerializationSpec.CountingMigration
 import akka.javasdk.impl.serialization.JsonSerializationSpec.Dog
 import akka.javasdk.impl.serialization.JsonSerializationSpec.SimpleClass
 import akka.javasdk.impl.serialization.JsonSerializationSpec.SimpleClassUpdated
@@ -23,6 +28,7 @@ import akka.runtime.sdk.spi.BytesPayload
 import akka.util.ByteString
 import com.fasterxml.jackson.annotation.JsonCreator
 import com.fasterxml.jackson.annotation.JsonInclude
+import com.fasterxml.jackson.core.io.SerializedString
 import com.fasterxml.jackson.databind.JsonNode
 import com.fasterxml.jackson.databind.node.IntNode
 import com.fasterxml.jackson.databind.node.ObjectNode
@@ -64,6 +70,44 @@ object JsonSerializationSpec {
   @Migration(classOf[SimpleClassUpdatedMigration])
   final case class SimpleClassUpdated(str: String, in: Int, newField: Int)
 
+  class FieldChangesMigration extends JsonMigration {
+    override def currentVersion(): Int = 1
+    override def fieldChanges(fromVersion: Int): JsonMigration.FieldChanges =
+      JsonMigration.FieldChanges
+        .create()
+        .rename("name", "fullName")
+        .remove("obsolete")
+        .addWithDefault("age", 42)
+  }
+
+  @JsonCreator
+  @Migration(classOf[FieldChangesMigration])
+  final case class ClassWithFieldChanges(fullName: String, age: Int)
+
+  class FieldChangesAndTransformMigration extends FieldChangesMigration {
+    override def transform(fromVersion: Int, jsonNode: JsonNode): JsonNode = {
+      val fullName = jsonNode.get("fullName").asText()
+      jsonNode.asInstanceOf[ObjectNode].put("fullName", fullName.toUpperCase)
+    }
+  }
+
+  @JsonCreator
+  @Migration(classOf[FieldChangesAndTransformMigration])
+  final case class ClassWithFieldChangesAndTransform(fullName: String, age: Int)
+
+  object CountingMigration {
+    val instances = new AtomicInteger
+  }
+
+  class CountingMigration extends JsonMigration {
+    CountingMigration.instances.incrementAndGet()
+    override def currentVersion(): Int = 1
+  }
+
+  @JsonCreator
+  @Migration(classOf[CountingMigration])
+  final case class ClassWithCountingMigration(str: String)
+
   object AnnotatedWithTypeName {
 
     sealed trait Animal
@@ -257,6 +301,40 @@ class JsonSerializationSpec extends AnyWordSpec with Matchers {
       decoded shouldBe SimpleClassUpdated("abc", 10, 1)
     }
 
+    "create the migration only once per type" in {
+      val serializer = new JsonSerializer
+      val instancesBefore = CountingMigration.instances.get()
+      val oldVersion = new BytesPayload(
+        ByteString.fromString("""{"str":"abc"}"""),
+        jsonContentTypeWith(classOf[ClassWithCountingMigration].getName))
+      val encoded = serializer.toBytes(ClassWithCountingMigration("abc"))
+      (1 to 3).foreach { _ =>
+        serializer.fromBytes(classOf[ClassWithCountingMigration], oldVersion) shouldBe ClassWithCountingMigration("abc")
+        serializer.fromBytes(classOf[ClassWithCountingMigration], encoded) shouldBe ClassWithCountingMigration("abc")
+      }
+      CountingMigration.instances.get() - instancesBefore shouldBe 1
+    }
+
+    "decode with declared field changes" in {
+      val oldVersion = new BytesPayload(
+        ByteString.fromString("""{"name":"joe","obsolete":{"nested":[1,2,3]}}"""),
+        jsonContentTypeWith(classOf[ClassWithFieldChanges].getName))
+      serializer.fromBytes(classOf[ClassWithFieldChanges], oldVersion) shouldBe ClassWithFieldChanges("joe", 42)
+
+      val oldVersionWithAge = new BytesPayload(
+        ByteString.fromString("""{"age":3,"name":"joe"}"""),
+        jsonContentTypeWith(classOf[ClassWithFieldChanges].getName))
+      serializer.fromBytes(classOf[ClassWithFieldChanges], oldVersionWithAge) shouldBe ClassWithFieldChanges("joe", 3)
+    }
+
+    "decode with declared field changes applied before transform" in {
+      val oldVersion = new BytesPayload(
+        ByteString.fromString("""{"name":"joe","obsolete":true}"""),
+        jsonContentTypeWith(classOf[ClassWithFieldChangesAndTransform].getName))
+      serializer.fromBytes(classOf[ClassWithFieldChangesAndTransform], oldVersion) shouldBe
+      ClassWithFieldChangesAndTransform("JOE", 42)
+    }
+
     "fail with the same type name" in {
       //fill the cache
       serializer.toBytes(Dog("abc"))
@@ -421,6 +499,28 @@ class JsonSerializationSpec extends AnyWordSpec with Matchers {
       payloadBigOne.utf8String shouldBe """{"value":10.0}"""
     }
 
+    "encode a view query parameter" in {
+      val name = new SerializedString("value")
+      serializer.encodeQueryParameter(name, "a\"b").utf8String shouldBe """{"value":"a\"b"}"""
+      serializer.encodeQueryParameter(name, true).utf8String shouldBe """{"value":true}"""
+      serializer.encodeQueryParameter(name, 10).utf8String shouldBe """{"value":10}"""
+      serializer.encodeQueryParameter(name, 10L).utf8String shouldBe """{"value":10}"""
+      serializer.encodeQueryParameter(name, 10d).utf8String shouldBe """{"value":10.0}"""
+      serializer.encodeQueryParameter(name, 'c').utf8String shouldBe """{"value":"c"}"""
+      serializer.encodeQueryParameter(name, 7.toByte).utf8String shouldBe """{"value":7}"""
+    }
+
+    "encode a collection view query parameter keeping numbers and booleans" in {
+      val name = new SerializedString("values")
+      serializer.encodeQueryParameter(name, util.List.of("a", "b")).utf8String shouldBe """{"values":["a","b"]}"""
+      serializer.encodeQueryParameter(name, util.List.of(1, 2)).utf8String shouldBe """{"values":[1,2]}"""
+      serializer.encodeQueryParameter(name, util.List.of(true)).utf8String shouldBe """{"values":[true]}"""
+      serializer
+        .encodeQueryParameter(name, util.Arrays.asList("a", null))
+        .utf8String shouldBe """{"values":["a",null]}"""
+      serializer.encodeQueryParameter(name, util.List.of()).utf8String shouldBe """{"values":[]}"""
+    }
+
     "use the provided object mapper" in {
       val customMapper = JsonSerializer.newObjectMapperWithDefaults()
       customMapper.setSerializationInclusion(JsonInclude.Include.NON_ABSENT)
@@ -429,5 +529,77 @@ class JsonSerializationSpec extends AnyWordSpec with Matchers {
       bytesPayload.bytes.utf8String shouldBe "{}"
     }
 
+    "encode internal payloads as JSON by default" in {
+      val bytesPayload = serializer.toInternalBytes(myJsonable)
+      bytesPayload.contentType shouldBe jsonContentTypeWith(classOf[MyJsonable].getName)
+    }
+
+    "encode and decode internal payloads as CBOR when enabled" in {
+      val binarySerializer = new JsonSerializer(JsonSerializer.internalObjectMapper, binaryEncoding = true)
+      val dummy = new DummyClass("123", 321, Optional.of("test"))
+      val bytesPayload = binarySerializer.toInternalBytes(dummy)
+      bytesPayload.contentType shouldBe JsonSerializer.CborContentTypePrefix + classOf[DummyClass].getName
+      binarySerializer.isJson(bytesPayload) shouldBe false
+      binarySerializer.isSdkEncoded(bytesPayload) shouldBe true
+      binarySerializer.fromBytes(classOf[DummyClass], bytesPayload) shouldBe dummy
+      binarySerializer.fromBytes(bytesPayload) shouldBe dummy
+
+      // previously stored JSON is still readable
+      binarySerializer.fromBytes(classOf[DummyClass], serializer.toBytes(dummy)) shouldBe dummy
+      // and a serializer without binary encoding can read CBOR
+      new JsonSerializer().fromBytes(classOf[DummyClass], bytesPayload) shouldBe dummy
+    }
+
+    "decode CBOR with migration" in {
+      val binarySerializer = new JsonSerializer(JsonSerializer.internalObjectMapper, binaryEncoding = true)
+      val encoded = binarySerializer.toInternalBytes(SimpleClass("abc", 10))
+      binarySerializer.fromBytes(classOf[SimpleClassUpdated], encoded) shouldBe SimpleClassUpdated("abc", 10, 1)
+
+      val oldVersion = new BytesPayload(
+        ByteString.fromArrayUnsafe(
+          JsonSerializer.internalCborObjectMapper.writeValueAsBytes(
+            JsonSerializer.internalObjectMapper.readTree("""{"name":"joe","obsolete":[1,2,3]}"""))),
+        JsonSerializer.CborContentTypePrefix + classOf[ClassWithFieldChanges].getName)
+      binarySerializer.fromBytes(classOf[ClassWithFieldChanges], oldVersion) shouldBe ClassWithFieldChanges("joe", 42)
+    }
+
+    "route CBOR content types to the JSON type url" in {
+      serializer.replaceLegacyJsonPrefix(JsonSerializer.CborContentTypePrefix + "foo") shouldBe jsonContentTypeWith(
+        "foo")
+    }
+
+    "route by type url without version, legacy or binary prefix" in {
+      serializer.routingTypeUrl(jsonContentTypeWith("foo#2")) shouldBe jsonContentTypeWith("foo")
+      serializer.routingTypeUrl("json.kalix.io/foo") shouldBe jsonContentTypeWith("foo")
+      serializer.routingTypeUrl(JsonSerializer.CborContentTypePrefix + "foo#1") shouldBe jsonContentTypeWith("foo")
+      serializer.routingTypeUrl(BytesPayload.EmptyContentType) shouldBe BytesPayload.EmptyContentType
+      // cached
+      serializer.contentTypeInfoFor(jsonContentTypeWith("foo#2")) should be theSameInstanceAs serializer
+        .contentTypeInfoFor(jsonContentTypeWith("foo#2"))
+    }
+
+    "not decode payloads that are neither JSON nor CBOR" in {
+      val bytesPayload = new BytesPayload(ByteString.fromString("abc"), "text/plain")
+      val exception = intercept[IllegalArgumentException] {
+        serializer.fromBytes(classOf[String], bytesPayload)
+      }
+      exception.getMessage should include(
+        s"must start with [${JsonSerializer.JsonContentTypePrefix}] or [${JsonSerializer.CborContentTypePrefix}]")
+    }
+
+    "decode the same content type into different classes" in {
+      val serializer = new JsonSerializer
+      val bytesPayload = new BytesPayload(
+        ByteString.fromString("""{"stringValue":"123","intValue":321}"""),
+        jsonContentTypeWith(classOf[DummyClass].getName))
+      (1 to 2).foreach { _ =>
+        serializer.fromBytes(classOf[DummyClass], bytesPayload) shouldBe new DummyClass("123", 321, Optional.empty())
+        serializer.fromBytes(classOf[DummyClassRenamed], bytesPayload) shouldBe new DummyClassRenamed(
+          "123",
+          321,
+          Optional.empty())
+      }
+    }
+
   }
 }
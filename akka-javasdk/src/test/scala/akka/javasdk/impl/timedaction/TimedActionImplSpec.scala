@@ -15,6 +15,7 @@ import akka.actor.typed.scaladsl.adapter._
 import akka.javasdk.annotations.ComponentId
 import akka.javasdk.impl.ComponentDescriptor
 import akka.javasdk.impl.TimedActionDescriptorFactory
+import akka.javasdk.impl.UserCodeExecutor
 import akka.javasdk.impl.serialization.JsonSerializer
 import akka.javasdk.timedaction.TimedAction
 import akka.runtime.sdk.spi.BytesPayload
@@ -53,7 +54,10 @@ class TimedActionImplSpec
     override def removeTimer(name: String): Future[Done] = ???
   }
 
-  def create(componentDescriptor: ComponentDescriptor): TimedActionImpl[TestTimedAction] = {
+  def create(
+      componentDescriptor: ComponentDescriptor,
+      userCodeExecutor: UserCodeExecutor = UserCodeExecutor.callingThread(classicSystem.dispatcher))
+      : TimedActionImpl[TestTimedAction] = {
     new TimedActionImpl(
       "dummy-id",
       () => new TestTimedAction,
@@ -64,7 +68,8 @@ class TimedActionImplSpec
       () => OpenTelemetry.noop().getTracer("test"),
       serializer,
       new RegionInfo(""),
-      componentDescriptor)
+      componentDescriptor,
+      userCodeExecutor)
   }
 
   @ComponentId("dummy-id")
@@ -78,6 +83,11 @@ class TimedActionImplSpec
       throw new IllegalStateException("boom")
     }
 
+    def myMethodOnVirtualThread(): TimedAction.Effect = {
+      if (Thread.currentThread().isVirtual) effects().done()
+      else effects().error("not on a virtual thread")
+    }
+
   }
 
   "The action service" should {
@@ -112,5 +122,19 @@ class TimedActionImplSpec
       reply.error.description should startWith("Unexpected error")
     }
 
+    "run the command handler on a virtual thread when enabled" in {
+      val service = create(
+        TimedActionDescriptorFactory.buildDescriptorFor(classOf[TestTimedAction], serializer),
+        UserCodeExecutor.virtualThreads())
+
+      val reply =
+        service
+          .handleCommand(
+            new SpiTimedAction.Command("MyMethodOnVirtualThread", Some(BytesPayload.empty), SpiMetadata.empty))
+          .futureValue
+
+      reply shouldBe an[SpiTimedAction.SuccessEffect.type]
+    }
+
   }
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.view
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import akka.javasdk.view.TableUpdater
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+object TableUpdaterStateSpec {
+  class TestUpdater extends TableUpdater[String] {
+    def currentRow(): String = rowState()
+  }
+}
+
+class TableUpdaterStateSpec extends AnyWordSpec with Matchers {
+  import TableUpdaterStateSpec._
+
+  "The table updater row state" should {
+
+    "only be created when accessed, and only once" in {
+      val decoded = new AtomicInteger()
+      val updater = new TestUpdater
+      updater._internalSetLazyViewState { () =>
+        decoded.incrementAndGet()
+        "row"
+      }
+      decoded.get() shouldBe 0
+
+      updater.currentRow() shouldBe "row"
+      updater.currentRow() shouldBe "row"
+      decoded.get() shouldBe 1
+    }
+
+    "not be available after being cleared for reuse of the updater" in {
+      val updater = new TestUpdater
+      updater._internalSetLazyViewState(() => "row")
+      updater.currentRow() shouldBe "row"
+      updater._internalClearViewState()
+
+      intercept[IllegalStateException] {
+        updater.currentRow()
+      }
+
+      updater._internalSetLazyViewState(() => null)
+      updater.currentRow() shouldBe null
+    }
+  }
+}
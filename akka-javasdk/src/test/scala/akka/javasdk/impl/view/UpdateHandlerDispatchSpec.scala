@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.view
+
+import akka.javasdk.impl.MethodInvoker
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+object UpdateHandlerDispatchSpec {
+  trait Event
+  trait Audited
+  class Created extends Event
+  class Renamed extends Event
+  class SpecialRenamed extends Renamed with Audited
+
+  class Handlers {
+    def onEvent(event: Event): String = "event"
+    def onRenamed(event: Renamed): String = "renamed"
+    def onAudited(event: Audited): String = "audited"
+  }
+}
+
+class UpdateHandlerDispatchSpec extends AnyWordSpec with Matchers {
+  import UpdateHandlerDispatchSpec._
+
+  private def handler(name: String): MethodInvoker =
+    MethodInvoker(classOf[Handlers].getMethods.find(_.getName == name).get)
+
+  private def dispatch(handlerNames: String*): UpdateHandlerDispatch =
+    new UpdateHandlerDispatch(handlerNames.map(handler))
+
+  private def handlerNameFor(dispatch: UpdateHandlerDispatch, eventClass: Class[_]): Option[String] =
+    dispatch.handlerFor(eventClass).map(_.method.getName)
+
+  "The update handler dispatch" should {
+
+    "pick the handler for the most specific type accepting the event" in {
+      val forward = dispatch("onEvent", "onRenamed")
+      val reversed = dispatch("onRenamed", "onEvent")
+      for (d <- Seq(forward, reversed)) {
+        handlerNameFor(d, classOf[Created]) shouldBe Some("onEvent")
+        handlerNameFor(d, classOf[Renamed]) shouldBe Some("onRenamed")
+        handlerNameFor(d, classOf[SpecialRenamed]) shouldBe Some("onRenamed")
+      }
+    }
+
+    "prefer a class over an equally specific interface regardless of declaration order" in {
+      handlerNameFor(dispatch("onAudited", "onRenamed"), classOf[SpecialRenamed]) shouldBe Some("onRenamed")
+      handlerNameFor(dispatch("onRenamed", "onAudited"), classOf[SpecialRenamed]) shouldBe Some("onRenamed")
+    }
+
+    "not find a handler for events no handler accepts" in {
+      handlerNameFor(dispatch("onRenamed"), classOf[Created]) shouldBe None
+      handlerNameFor(dispatch(), classOf[Created]) shouldBe None
+    }
+
+    "invoke the chosen handler" in {
+      val invoker = dispatch("onEvent", "onRenamed").handlerFor(classOf[Renamed]).get
+      invoker.invokeDirectly(new Handlers, new Renamed) shouldBe "renamed"
+    }
+  }
+}
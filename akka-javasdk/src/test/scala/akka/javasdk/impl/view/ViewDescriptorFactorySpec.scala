@@ -267,6 +267,28 @@ class ViewDescriptorFactorySpec extends AnyWordSpec with Matchers {
       "On 'akka.javasdk.testmodels.view.ViewTestModels$ViewWithIncorrectQueries#getUserByEmail': Query methods marked with streamUpdates must return View.QueryStreamEffect<RowType>"
     }
 
+    "allow a cache ttl for queries returning View.QueryEffect<T>" in {
+      Validations.validate(classOf[ViewTestModels.ViewWithCachedQuery]).failIfInvalid()
+    }
+
+    "not allow a cache ttl for queries returning View.QueryStreamEffect<T>" in {
+      intercept[ValidationException] {
+        Validations.validate(classOf[ViewTestModels.ViewWithCachedStreamQuery]).failIfInvalid()
+      }.getMessage should include(
+        "ViewWithCachedStreamQuery#getAllUsers': Only query methods returning View.QueryEffect<RowType> can declare cacheTtlMillis.")
+    }
+
+    "allow reusable table updaters" in {
+      Validations.validate(classOf[ViewTestModels.ViewWithReusableTableUpdater]).failIfInvalid()
+    }
+
+    "not allow stateless table updaters" in {
+      intercept[ValidationException] {
+        Validations.validate(classOf[ViewTestModels.ViewWithStatelessTableUpdater]).failIfInvalid()
+      }.getMessage should include(
+        "A TableUpdater can't be annotated with @Stateless, annotate it with @Reusable to reuse its instances.")
+    }
+
   }
 
   "View descriptor factory (for Event Sourced Entity)" should {
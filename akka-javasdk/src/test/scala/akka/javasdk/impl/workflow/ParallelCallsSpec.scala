@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.workflow
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+
+import org.scalatest.concurrent.ScalaFutures
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class ParallelCallsSpec extends AnyWordSpec with Matchers with ScalaFutures {
+
+  private implicit val ec: ExecutionContext = ExecutionContext.global
+
+  "Parallel workflow step calls" should {
+
+    "return the results in the order of the inputs" in {
+      val results = ParallelCalls.callAll((1 to 20).toIndexedSeq, maxParallelism = 4, maxRetries = 0) { n =>
+        Future {
+          Thread.sleep((20 - n) % 5)
+          n * 10
+        }
+      }
+      results.futureValue shouldBe (1 to 20).map(_ * 10)
+    }
+
+    "not have more calls in flight than the max parallelism" in {
+      val inFlight = new AtomicInteger()
+      val maxInFlight = new AtomicInteger()
+      val results = ParallelCalls.callAll((1 to 30).toIndexedSeq, maxParallelism = 3, maxRetries = 0) { n =>
+        val current = inFlight.incrementAndGet()
+        maxInFlight.accumulateAndGet(current, (a, b) => math.max(a, b))
+        Future {
+          Thread.sleep(2)
+          inFlight.decrementAndGet()
+          n
+        }
+      }
+      results.futureValue should have size 30
+      maxInFlight.get() should be <= 3
+    }
+
+    "retry the call for a failed input only" in {
+      val attempts = new ConcurrentHashMap[Int, AtomicInteger]()
+      val results = ParallelCalls.callAll(IndexedSeq(1, 2, 3), maxParallelism = 3, maxRetries = 2) { n =>
+        val attempt = attempts.computeIfAbsent(n, _ => new AtomicInteger()).incrementAndGet()
+        if (n == 2 && attempt < 3) Future.failed(new RuntimeException("boom"))
+        else Future.successful(n)
+      }
+      results.futureValue shouldBe IndexedSeq(1, 2, 3)
+      attempts.get(1).get() shouldBe 1
+      attempts.get(2).get() shouldBe 3
+      attempts.get(3).get() shouldBe 1
+    }
+
+    "fail when an input still fails after the retries" in {
+      val results = ParallelCalls.callAll(IndexedSeq(1, 2, 3), maxParallelism = 1, maxRetries = 1) { n =>
+        if (n == 2) throw new RuntimeException(s"boom $n")
+        else Future.successful(n)
+      }
+      results.failed.futureValue.getMessage shouldBe "boom 2"
+    }
+
+    "complete with no results for no inputs" in {
+      val results =
+        ParallelCalls.callAll(IndexedSeq.empty[Int], maxParallelism = 3, maxRetries = 0)(n => Future.successful(n))
+      results.futureValue shouldBe empty
+    }
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2021-2024 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.workflow
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.concurrent.ExecutionContext
+
+import akka.javasdk.impl.serialization.JsonSerializer
+import akka.javasdk.impl.workflow.ReflectiveWorkflowRouter.WorkflowStepNotFound
+import akka.javasdk.testmodels.workflow.WorkflowTestModels.ParallelReservationWorkflow
+import akka.javasdk.testmodels.workflow.WorkflowTestModels.ParallelReservationWorkflow.Item
+import akka.javasdk.testmodels.workflow.WorkflowTestModels.ParallelReservationWorkflow.Reservation
+import akka.javasdk.workflow.Workflow
+import akka.javasdk.workflow.WorkflowContext
+import akka.runtime.sdk.spi.BytesPayload
+import org.scalatest.concurrent.ScalaFutures
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+object ReflectiveWorkflowRouterSpec {
+
+  class StateRecordingWorkflow extends Workflow[String] {
+    val definitionsBuilt = new AtomicInteger()
+    @volatile var stepStates: List[String] = Nil
+    @volatile var transitionStates: List[String] = Nil
+
+    private val recordStepState: Runnable = () => stepStates = stepStates :+ currentState()
+
+    override def definition(): Workflow.WorkflowDef[String] = {
+      definitionsBuilt.incrementAndGet()
+      workflow()
+        .addStep(step("record").call(recordStepState).andThen { () =>
+          transitionStates = transitionStates :+ currentState()
+          effects().end()
+        })
+    }
+
+    def stateOutsideOfHandler(): String = currentState()
+  }
+
+  final class MutableState {
+    var count: Int = 0
+  }
+
+  class MutatingWorkflow extends Workflow[MutableState] {
+    @volatile var countsSeen: List[Int] = Nil
+
+    private val noop: Runnable = () => ()
+
+    override def definition(): Workflow.WorkflowDef[MutableState] =
+      workflow()
+        .addStep(step("mutate").call(noop).andThen { () =>
+          // modified in place, but the transition doesn't update the state
+          countsSeen = countsSeen :+ currentState().count
+          currentState().count += 1
+          effects().end()
+        })
+  }
+}
+
+class ReflectiveWorkflowRouterSpec extends AnyWordSpec with Matchers with ScalaFutures {
+  import ReflectiveWorkflowRouterSpec._
+
+  private val serializer = new JsonSerializer
+
+  private def state(value: String): Option[BytesPayload] = Some(serializer.toBytes(value))
+
+  private def routerFor(instances: AtomicInteger, created: StateRecordingWorkflow => Unit = _ => ()) =
+    new ReflectiveWorkflowRouter[String, StateRecordingWorkflow](
+      null,
+      { (_: WorkflowContext) =>
+        instances.incrementAndGet()
+        val workflow = new StateRecordingWorkflow
+        created(workflow)
+        workflow
+      },
+      Map.empty,
+      serializer)
+
+  "The reflective workflow router" should {
+
+    "reuse the workflow instance and its definition for following transitions" in {
+      val instances = new AtomicInteger()
+      var workflow: StateRecordingWorkflow = null
+      val router = routerFor(instances, created => workflow = created)
+
+      router.getNextStep("record", BytesPayload.empty, state("first"))
+      router.getNextStep("record", BytesPayload.empty, state("second"))
+
+      instances.get() shouldBe 1
+      workflow.definitionsBuilt.get() shouldBe 1
+      workflow.transitionStates shouldBe List("first", "second")
+    }
+
+    "not leave the state of a transition on the reused instance" in {
+      var workflow: StateRecordingWorkflow = null
+      val router = routerFor(new AtomicInteger(), created => workflow = created)
+
+      router.getNextStep("record", BytesPayload.empty, state("first"))
+
+      intercept[IllegalStateException] {
+        workflow.stateOutsideOfHandler()
+      }
+    }
+
+    "hand a state it decoded to one handler only" in {
+      var workflow: StateRecordingWorkflow = null
+      val router = routerFor(new AtomicInteger(), created => workflow = created)
+
+      router.getNextStep("record", BytesPayload.empty, state("first"))
+      router.getNextStep("record", BytesPayload.empty, state("first"))
+
+      val states = workflow.transitionStates
+      states shouldBe List("first", "first")
+      states(0) should not be theSameInstanceAs(states(1))
+    }
+
+    "not decode a state it encoded" in {
+      var workflow: StateRecordingWorkflow = null
+      val router = routerFor(new AtomicInteger(), created => workflow = created)
+      val updatedState = new String("updated")
+      router.stateEncoded(serializer.toBytes(updatedState), updatedState)
+
+      router.getNextStep("record", BytesPayload.empty, state("updated"))
+
+      workflow.transitionStates.head should be theSameInstanceAs updatedState
+    }
+
+    "pass the state of a completed step on to its transition" in {
+      var workflows: List[StateRecordingWorkflow] = Nil
+      val router = routerFor(new AtomicInteger(), created => workflows = workflows :+ created)
+
+      router.handleStep(state("first"), None, "record", null, null, ExecutionContext.global).futureValue
+      router.getNextStep("record", BytesPayload.empty, state("first"))
+
+      // the step may still hold the first instance when the transition starts
+      val stepState = workflows.flatMap(_.stepStates).head
+      val transitionState = workflows.flatMap(_.transitionStates).head
+      transitionState should be theSameInstanceAs stepState
+    }
+
+    "not pass on a state modified in place by a handler that didn't update it" in {
+      var workflow: MutatingWorkflow = null
+      val router = new ReflectiveWorkflowRouter[MutableState, MutatingWorkflow](
+        null,
+        { (_: WorkflowContext) =>
+          workflow = new MutatingWorkflow
+          workflow
+        },
+        Map.empty,
+        serializer)
+      val encodedState = new MutableState
+      val payload = serializer.toBytes(encodedState)
+      router.stateEncoded(payload, encodedState)
+
+      router.getNextStep("mutate", BytesPayload.empty, Some(payload))
+      router.getNextStep("mutate", BytesPayload.empty, Some(payload))
+
+      workflow.countsSeen shouldBe List(0, 0)
+    }
+
+    "run a parallel call step over a list of records and pass the typed results to its transition" in {
+      var workflow: ParallelReservationWorkflow = null
+      val router = new ReflectiveWorkflowRouter[String, ParallelReservationWorkflow](
+        null,
+        { (_: WorkflowContext) =>
+          workflow = new ParallelReservationWorkflow
+          workflow
+        },
+        Map.empty,
+        serializer)
+      // encoded like the input of a step transition
+      val input = serializer.toBytes(java.util.List.of(new Item("a", 1), new Item("b", 2), new Item("c", 3)))
+
+      val stepResult =
+        router.handleStep(state("s"), Some(input), "reserve", null, null, ExecutionContext.global).futureValue
+      router.getNextStep("reserve", stepResult, state("s"))
+
+      workflow.reservations shouldBe java.util.List
+        .of(new Reservation("a", 1), new Reservation("b", 2), new Reservation("c", 3))
+      workflow.reservations.get(0) shouldBe a[Reservation]
+    }
+
+    "keep reusing the instance after a transition for an unknown step" in {
+      val instances = new AtomicInteger()
+      val router = routerFor(instances)
+
+      intercept[WorkflowStepNotFound] {
+        router.getNextStep("unknown", BytesPayload.empty, state("first"))
+      }
+      router.getNextStep("record", BytesPayload.empty, state("second"))
+
+      instances.get() shouldBe 1
+    }
+  }
+}